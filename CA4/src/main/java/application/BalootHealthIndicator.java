@@ -0,0 +1,22 @@
+package application;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import service.Baloot;
+
+public class BalootHealthIndicator implements HealthIndicator {
+
+    private final Baloot baloot;
+
+    public BalootHealthIndicator(Baloot baloot) {
+        this.baloot = baloot;
+    }
+
+    @Override
+    public Health health() {
+        if (!baloot.isLoaded())
+            return Health.outOfService().build();
+
+        return Health.up().withDetail("loadTimingsMillis", baloot.getLoadTimings()).build();
+    }
+}
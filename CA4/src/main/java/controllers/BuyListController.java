@@ -1,7 +1,6 @@
 package controllers;
 
 import exceptions.*;
-import model.Commodity;
 import model.User;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,42 +24,22 @@ public class BuyListController {
     @PostMapping(value = "/buy-list")
     public ResponseEntity<ArrayList<BuyListItem>> getBuyList(@RequestBody Map<String, String> input) {
         String username = input.get("username");
-        ArrayList<BuyListItem> buyListItems = new ArrayList<>();
-
         try {
             Map<String, Integer> buyList = baloot.getUserBuyList(username);
-            for (Map.Entry<String, Integer> entry : buyList.entrySet()) {
-                Commodity commodity = baloot.getCommodityById(entry.getKey());
-                int quantity = entry.getValue();
-
-                BuyListItem buyListItem = new BuyListItem(commodity, quantity);
-                buyListItems.add(buyListItem);
-            }
-            return new ResponseEntity<>(buyListItems, HttpStatus.OK);
-
-        } catch (NotExistentUser | NotExistentCommodity ignored) {
-            return new ResponseEntity<>(buyListItems, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(baloot.getCommoditiesByIds(buyList), HttpStatus.OK);
+        } catch (NotExistentUser ignored) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.NOT_FOUND);
         }
     }
 
     @PostMapping(value = "/purchased-list")
     public ResponseEntity<ArrayList<BuyListItem>> getPurchasedList(@RequestBody Map<String, String> input) {
         String username = input.get("username");
-        ArrayList<BuyListItem> purchasedListItems = new ArrayList<>();
-
         try {
             Map<String, Integer> purchasedList = baloot.getUserPurchasedList(username);
-            for (Map.Entry<String, Integer> entry : purchasedList.entrySet()) {
-                Commodity commodity = baloot.getCommodityById(entry.getKey());
-                int quantity = entry.getValue();
-
-                BuyListItem buyListItem = new BuyListItem(commodity, quantity);
-                purchasedListItems.add(buyListItem);
-            }
-            return new ResponseEntity<>(purchasedListItems, HttpStatus.OK);
-
-        } catch (NotExistentUser | NotExistentCommodity ignored) {
-            return new ResponseEntity<>(purchasedListItems, HttpStatus.NOT_FOUND);
+            return new ResponseEntity<>(baloot.getCommoditiesByIds(purchasedList), HttpStatus.OK);
+        } catch (NotExistentUser ignored) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.NOT_FOUND);
         }
     }
 
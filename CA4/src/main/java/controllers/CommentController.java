@@ -12,6 +12,8 @@ import service.Baloot;
 
 import java.util.Map;
 
+import static defines.Errors.MISSING_USER_ID;
+
 @RestController
 public class CommentController {
 
@@ -23,9 +25,12 @@ public class CommentController {
     @PostMapping(value = "/comment/{id}/like")
     public ResponseEntity<String> likeComment(@PathVariable String id, @RequestBody Map<String, String> input) {
         int commentId = Integer.parseInt(id);
+        String username = input.get("username");
+        if (username == null)
+            return new ResponseEntity<>(MISSING_USER_ID, HttpStatus.BAD_REQUEST);
+
         try {
             Comment comment = baloot.getCommentById(commentId);
-            String username = input.get("username");
             comment.addUserVote(username, "like");
             return new ResponseEntity<>("The comment was successfully liked!", HttpStatus.OK);
         } catch (NotExistentComment e) {
@@ -36,9 +41,12 @@ public class CommentController {
     @PostMapping(value = "/comment/{id}/dislike")
     public ResponseEntity<String> dislikeComment(@PathVariable String id, @RequestBody Map<String, String> input) {
         int commentId = Integer.parseInt(id);
+        String username = input.get("username");
+        if (username == null)
+            return new ResponseEntity<>(MISSING_USER_ID, HttpStatus.BAD_REQUEST);
+
         try {
             Comment comment = baloot.getCommentById(commentId);
-            String username = input.get("username");
             comment.addUserVote(username, "dislike");
             return new ResponseEntity<>("The comment was successfully disliked!", HttpStatus.OK);
         } catch (NotExistentComment e) {
@@ -1,5 +1,6 @@
 package controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import exceptions.InvalidScoreRange;
 import service.Baloot;
 import model.Comment;
@@ -8,24 +9,55 @@ import model.User;
 import exceptions.NotExistentCommodity;
 import exceptions.NotExistentUser;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import utils.CommoditySummary;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
+import static defines.Errors.MISSING_USER_ID;
+
 @RestController
 public class CommoditiesController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
 
     private Baloot baloot = Baloot.getInstance();
 
+    public CommoditiesController(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
     public void setBaloot(Baloot baloot) {
         this.baloot = baloot;
     }
     @GetMapping(value = "/commodities")
-    public ResponseEntity<ArrayList<Commodity>> getCommodities() {
-        return new ResponseEntity<>(baloot.getCommodities(), HttpStatus.OK);
+    public ResponseEntity<ArrayList<CommoditySummary>> getCommodities(@RequestParam(defaultValue = "0") int offset,
+                                                                      @RequestParam(defaultValue = "" + MAX_PAGE_SIZE) int limit) {
+        if (offset < 0 || limit < 1)
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
+        ArrayList<Commodity> commodities = baloot.getCommodities(offset, Math.min(limit, MAX_PAGE_SIZE));
+        return new ResponseEntity<>(CommoditySummary.summarize(commodities), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/commodities/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCommodities() {
+        List<Commodity> commodities = baloot.getCommodities();
+        StreamingResponseBody body = outputStream -> {
+            for (Commodity commodity : commodities) {
+                outputStream.write(objectMapper.writeValueAsBytes(new CommoditySummary(commodity)));
+                outputStream.write('\n');
+            }
+        };
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping(value = "/commodities/{id}")
@@ -44,11 +76,13 @@ public class CommoditiesController {
         if (rateString == null) {
             return new ResponseEntity<>("rate is null.", HttpStatus.BAD_REQUEST);
         }
+        String username = input.get("username");
+        if (username == null) {
+            return new ResponseEntity<>(MISSING_USER_ID, HttpStatus.BAD_REQUEST);
+        }
         try {
             int rate = Integer.parseInt(rateString);
-            String username = input.get("username");
-            Commodity commodity = baloot.getCommodityById(id);
-            commodity.addRate(username, rate);
+            baloot.rateCommodity(id, username, rate);
             return new ResponseEntity<>("rate added successfully!", HttpStatus.OK);
         } catch (NotExistentCommodity e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
@@ -77,14 +111,33 @@ public class CommoditiesController {
     }
 
     @GetMapping(value = "/commodities/{id}/comment")
-    public ResponseEntity<ArrayList<Comment>> getCommodityComment(@PathVariable String id) {
-        ArrayList<Comment> comments = baloot.getCommentsForCommodity(Integer.parseInt(id));
+    public ResponseEntity<ArrayList<Comment>> getCommodityComment(@PathVariable String id,
+                                                                 @RequestParam(required = false) Integer offset,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) Long from,
+                                                                 @RequestParam(required = false) Long to) {
+        if ((offset != null && offset < 0) || (limit != null && limit < 1))
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+        if (from != null && to != null && from > to)
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
 
-        return new ResponseEntity<>(comments, HttpStatus.OK);
+        int commodityId = Integer.parseInt(id);
+        int pageOffset = Objects.requireNonNullElse(offset, 0);
+        int pageLimit = Objects.requireNonNullElse(limit, Integer.MAX_VALUE);
+        if (from != null || to != null) {
+            ArrayList<Comment> comments = baloot.getCommentsForCommodityBetween(commodityId,
+                    Objects.requireNonNullElse(from, Long.MIN_VALUE), Objects.requireNonNullElse(to, Long.MAX_VALUE),
+                    pageOffset, pageLimit);
+            return new ResponseEntity<>(comments, HttpStatus.OK);
+        }
+        if (offset == null && limit == null)
+            return new ResponseEntity<>(baloot.getCommentsForCommodity(commodityId), HttpStatus.OK);
+
+        return new ResponseEntity<>(baloot.getCommentsForCommodity(commodityId, pageOffset, pageLimit), HttpStatus.OK);
     }
 
     @PostMapping(value = "/commodities/search")
-    public ResponseEntity<ArrayList<Commodity>> searchCommodities(@RequestBody Map<String, String> input) {
+    public ResponseEntity<ArrayList<CommoditySummary>> searchCommodities(@RequestBody Map<String, String> input) {
         String searchOption = input.get("searchOption");
         String searchValue = input.get("searchValue");
 
@@ -93,21 +146,29 @@ public class CommoditiesController {
         }
 
         ArrayList<Commodity> commodities = switch (searchOption) {
-            case "name" -> baloot.filterCommoditiesByName(searchValue);
+            case "name" -> Boolean.parseBoolean(input.get("ignoreCase"))
+                    ? baloot.filterCommoditiesByName(searchValue, true)
+                    : baloot.filterCommoditiesByName(searchValue);
             case "category" -> baloot.filterCommoditiesByCategory(searchValue);
+            case "categories" -> baloot.filterCommoditiesByCategories(List.of(searchValue.split("\\s*,\\s*")),
+                    Boolean.parseBoolean(input.get("matchAll")));
             case "provider" -> baloot.filterCommoditiesByProviderName(searchValue);
             default -> new ArrayList<>();
         };
 
-        return new ResponseEntity<>(commodities, HttpStatus.OK);
+        return new ResponseEntity<>(CommoditySummary.summarize(commodities), HttpStatus.OK);
     }
 
     @GetMapping(value = "/commodities/{id}/suggested")
-    public ResponseEntity<ArrayList<Commodity>> getSuggestedCommodities(@PathVariable String id) {
+    public ResponseEntity<ArrayList<CommoditySummary>> getSuggestedCommodities(@PathVariable String id,
+                                                                               @RequestParam(defaultValue = "" + Baloot.DEFAULT_NUMBER_OF_COMMODITY_SUGGESTIONS) int count) {
+        if (count < 1)
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+
         try {
             Commodity commodity = baloot.getCommodityById(id);
-            ArrayList<Commodity> suggestedCommodities = baloot.suggestSimilarCommodities(commodity);
-            return new ResponseEntity<>(suggestedCommodities, HttpStatus.OK);
+            ArrayList<Commodity> suggestedCommodities = baloot.suggestSimilarCommodities(commodity, Math.min(count, MAX_PAGE_SIZE));
+            return new ResponseEntity<>(CommoditySummary.summarize(suggestedCommodities), HttpStatus.OK);
         } catch (NotExistentCommodity ignored) {
             return new ResponseEntity<>(new ArrayList<>(), HttpStatus.NOT_FOUND);
         }
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
 import service.Baloot;
+import utils.CommoditySummary;
 
 import java.util.ArrayList;
 
@@ -30,8 +31,8 @@ public class ProviderController {
     }
 
     @GetMapping(value = "/providers/{id}/commodities")
-    public ResponseEntity<ArrayList<Commodity>> getProvidedCommodities(@PathVariable String id) {
+    public ResponseEntity<ArrayList<CommoditySummary>> getProvidedCommodities(@PathVariable String id) {
         ArrayList<Commodity> commodities = baloot.getCommoditiesProvidedByProvider(id);
-        return new ResponseEntity<>(commodities, HttpStatus.OK);
+        return new ResponseEntity<>(CommoditySummary.summarize(commodities), HttpStatus.OK);
     }
 }
@@ -1,6 +1,6 @@
 package database;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import model.Comment;
 import model.Commodity;
@@ -8,10 +8,9 @@ import model.Provider;
 import model.User;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
 
 
 public class DataParser {
@@ -23,42 +22,47 @@ public class DataParser {
         this.database = database;
     }
 
-    public void getUsersList() throws IOException {
-        String filePath = dataPath + "users.json";
-        String usersString = new String(Files.readAllBytes(Paths.get(filePath)));
+    private InputStream openDataFile(String fileName) throws IOException {
+        return Files.newInputStream(Paths.get(dataPath + fileName));
+    }
 
-        List<User> userList = objectMapper.readValue(usersString, new TypeReference<>() {
-        });
-        database.setUsers((ArrayList<User>) userList);
+    public void getUsersList() throws IOException {
+        database.clearUsers();
+        try (InputStream input = openDataFile("users.json");
+             MappingIterator<User> users = objectMapper.readerFor(User.class).readValues(input)) {
+            while (users.hasNextValue())
+                database.addUser(users.nextValue());
+        }
     }
 
     public void getProvidersList() throws IOException {
-        String filePath = dataPath + "providers.json";
-        String providersString = new String(Files.readAllBytes(Paths.get(filePath)));
-
-        List<Provider> providerList = objectMapper.readValue(providersString, new TypeReference<>() {
-        });
-        database.setProviders((ArrayList<Provider>) providerList);
+        database.clearProviders();
+        try (InputStream input = openDataFile("providers.json");
+             MappingIterator<Provider> providers = objectMapper.readerFor(Provider.class).readValues(input)) {
+            while (providers.hasNextValue())
+                database.addProvider(providers.nextValue());
+        }
     }
 
     public void getCommoditiesList() throws IOException {
-        String filePath = dataPath + "commodities.json";
-        String commoditiesString = new String(Files.readAllBytes(Paths.get(filePath)));
-
-        List<Commodity> commodityList = objectMapper.readValue(commoditiesString, new TypeReference<>() {
-        });
-        database.setCommodities((ArrayList<Commodity>) commodityList);
+        database.clearCommodities();
+        try (InputStream input = openDataFile("commodities.json");
+             MappingIterator<Commodity> commodities = objectMapper.readerFor(Commodity.class).readValues(input)) {
+            while (commodities.hasNextValue())
+                database.addCommodity(commodities.nextValue());
+        }
     }
 
     public void getCommentsList() throws IOException {
-        String filePath = dataPath + "comments.json";
-        String commentsString = new String(Files.readAllBytes(Paths.get(filePath)));
-
-        List<Comment> commentsList = objectMapper.readValue(commentsString, new TypeReference<>() {
-        });
-        database.setComments((ArrayList<Comment>) commentsList);
-
-        for (Comment comment : commentsList)
-            comment.setId(commentsList.indexOf(comment));
+        database.clearComments();
+        try (InputStream input = openDataFile("comments.json");
+             MappingIterator<Comment> comments = objectMapper.readerFor(Comment.class).readValues(input)) {
+            for (int id = 0; comments.hasNextValue(); id++) {
+                Comment comment = comments.nextValue();
+                comment.setId(id);
+                database.appendLoadedComment(comment);
+            }
+        }
+        database.sortLoadedComments();
     }
 }
@@ -5,37 +5,281 @@ import model.Commodity;
 import model.Provider;
 import model.User;
 import lombok.Getter;
-import lombok.Setter;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-@Getter
-@Setter
 public class Database {
     @Getter
     private static final Database instance = new Database();
 
-    private Database() {
+    private static final Comparator<Comment> COMMENT_DATE_ORDER = Comparator.comparingLong(Comment::getTimestamp);
+
+    public Database() {
+    }
+
+    private final SnapshotList<User> users = new SnapshotList<>();
+    private final SnapshotList<Provider> providers = new SnapshotList<>();
+    private final SnapshotList<Commodity> commodities = new SnapshotList<>();
+    private final SnapshotList<Comment> comments = new SnapshotList<>();
+
+    private final Map<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, Provider> providersById = new ConcurrentHashMap<>();
+    private final Map<String, Commodity> commoditiesById = new ConcurrentHashMap<>();
+    private final Map<Integer, Comment> commentsById = new ConcurrentHashMap<>();
+
+    private final Map<String, String> providerIdsByName = new ConcurrentHashMap<>();
+    private final Map<String, SnapshotList<Commodity>> commoditiesByProviderId = new ConcurrentHashMap<>();
+    private final Map<String, Postings> commoditiesByCategory = new ConcurrentHashMap<>();
+    private final TrigramIndex commodityNames = new TrigramIndex();
+    private final RatingIndex commodityRatings = new RatingIndex();
+    private final Map<Integer, SnapshotList<Comment>> commentsByCommodityId = new ConcurrentHashMap<>();
+    private final AtomicInteger nextCommentId = new AtomicInteger();
+
+    public List<User> getUsers() {
+        return users.snapshot();
     }
 
-    private ArrayList<User> users = new ArrayList<>();
-    private ArrayList<Provider> providers = new ArrayList<>();
-    private ArrayList<Commodity> commodities = new ArrayList<>();
-    private ArrayList<Comment> comments = new ArrayList<>();
+    public List<Provider> getProviders() {
+        return providers.snapshot();
+    }
+
+    public List<Commodity> getCommodities() {
+        return commodities.snapshot();
+    }
+
+    public List<Comment> getComments() {
+        return comments.snapshot();
+    }
+
+    public void clearUsers() {
+        users.clear();
+        usersByUsername.clear();
+    }
+
+    public void clearProviders() {
+        providers.clear();
+        providersById.clear();
+        providerIdsByName.clear();
+    }
+
+    public void clearCommodities() {
+        commodities.clear();
+        commoditiesById.clear();
+        commoditiesByProviderId.clear();
+        commoditiesByCategory.clear();
+        commodityNames.clear();
+        commodityRatings.clear();
+    }
+
+    public void clearComments() {
+        comments.clear();
+        commentsById.clear();
+        commentsByCommodityId.clear();
+        nextCommentId.set(0);
+    }
 
     public void addUser(User user) {
         users.add(user);
+        putIfKeyPresent(usersByUsername, user.getUsername(), user);
     }
 
     public void addProvider(Provider provider) {
         providers.add(provider);
+        putIfKeyPresent(providersById, provider.getId(), provider);
+        putIfKeyPresent(providerIdsByName, provider.getName(), provider.getId());
     }
 
     public void addCommodity(Commodity commodity) {
-        commodities.add(commodity);
+        int ordinal = commodities.add(commodity);
+
+        putIfKeyPresent(commoditiesById, commodity.getId(), commodity);
+        if (commodity.getProviderId() != null)
+            commoditiesByProviderId.computeIfAbsent(commodity.getProviderId(), key -> new SnapshotList<>()).add(commodity);
+
+        if (commodity.getCategories() != null)
+            for (String category : commodity.getCategories())
+                if (category != null)
+                    commoditiesByCategory.computeIfAbsent(category, key -> new Postings()).add(ordinal);
+
+        if (commodity.getName() != null)
+            commodityNames.add(commodity.getName(), ordinal);
+
+        commodityRatings.add(commodity, ordinal);
     }
 
     public void addComment(Comment comment) {
+        indexComment(comment).add(comment);
+    }
+
+    void appendLoadedComment(Comment comment) {
+        indexComment(comment).append(comment);
+    }
+
+    void sortLoadedComments() {
+        for (SnapshotList<Comment> commodityComments : commentsByCommodityId.values())
+            commodityComments.sort();
+    }
+
+    private SnapshotList<Comment> indexComment(Comment comment) {
         comments.add(comment);
+
+        commentsById.putIfAbsent(comment.getId(), comment);
+        nextCommentId.accumulateAndGet(comment.getId() + 1, Math::max);
+        return commentsByCommodityId.computeIfAbsent(comment.getCommodityId(), key -> new SnapshotList<>(COMMENT_DATE_ORDER));
+    }
+
+    public int generateCommentId() {
+        return nextCommentId.getAndIncrement();
+    }
+
+    private static <K, V> void putIfKeyPresent(Map<K, V> index, K key, V value) {
+        if (key != null && value != null)
+            index.putIfAbsent(key, value);
+    }
+
+    private static <K, V> V getIfKeyPresent(Map<K, V> index, K key) {
+        if (key == null)
+            return null;
+
+        return index.get(key);
+    }
+
+    private List<Commodity> resolveCommodities(Postings.View postings) {
+        List<Commodity> allCommodities = commodities.snapshot();
+        List<Commodity> result = new ArrayList<>(postings.size());
+        for (int i = 0; i < postings.size(); i++)
+            result.add(allCommodities.get(postings.get(i)));
+
+        return result;
+    }
+
+    public User findUser(String username) {
+        return getIfKeyPresent(usersByUsername, username);
+    }
+
+    public Provider findProvider(String providerId) {
+        return getIfKeyPresent(providersById, providerId);
+    }
+
+    public Commodity findCommodity(String commodityId) {
+        return getIfKeyPresent(commoditiesById, commodityId);
+    }
+
+    public Comment findComment(int commentId) {
+        return commentsById.get(commentId);
+    }
+
+    public String findProviderIdByName(String providerName) {
+        return getIfKeyPresent(providerIdsByName, providerName);
+    }
+
+    public List<Commodity> findCommoditiesByProviderId(String providerId) {
+        SnapshotList<Commodity> providedCommodities = getIfKeyPresent(commoditiesByProviderId, providerId);
+        if (providedCommodities == null)
+            return Collections.emptyList();
+
+        return providedCommodities.snapshot();
+    }
+
+    public List<Commodity> findCommoditiesByCategory(String category) {
+        Postings postings = getIfKeyPresent(commoditiesByCategory, category);
+        if (postings == null)
+            return Collections.emptyList();
+
+        return resolveCommodities(postings.view());
+    }
+
+    public List<Commodity> findCommoditiesByCategories(Collection<String> categories, boolean matchAll) {
+        Postings.View result = null;
+        for (String category : categories) {
+            Postings postings = getIfKeyPresent(commoditiesByCategory, category);
+            Postings.View view = (postings == null) ? Postings.View.EMPTY : postings.view();
+            if (result == null)
+                result = view;
+            else
+                result = matchAll ? result.intersect(view) : result.union(view);
+        }
+
+        if (result == null)
+            return Collections.emptyList();
+
+        return resolveCommodities(result);
+    }
+
+    public void refreshCommodityRating(Commodity commodity) {
+        commodityRatings.refresh(commodity);
+    }
+
+    public List<Commodity> findTopRatedCommodities(int count) {
+        return commodityRatings.topRated(count);
+    }
+
+    public List<Commodity> findTopRatedCommoditiesByCategory(String category, int count) {
+        if (category == null)
+            return Collections.emptyList();
+
+        return commodityRatings.topRated(category, count);
+    }
+
+    public List<Commodity> findCommoditiesByName(String name, boolean ignoreCase) {
+        String normalizedName = TrigramIndex.normalize(name);
+        Postings.View candidates = commodityNames.candidates(normalizedName);
+        List<Commodity> scanned = (candidates == null) ? commodities.snapshot() : resolveCommodities(candidates);
+
+        List<Commodity> result = new ArrayList<>();
+        for (Commodity commodity : scanned)
+            if (nameMatches(commodity, name, normalizedName, ignoreCase))
+                result.add(commodity);
+
+        return result;
+    }
+
+    private static boolean nameMatches(Commodity commodity, String name, String normalizedName, boolean ignoreCase) {
+        if (commodity.getName() == null)
+            return false;
+
+        if (ignoreCase)
+            return TrigramIndex.normalize(commodity.getName()).contains(normalizedName);
+
+        return commodity.getName().contains(name);
+    }
+
+    public List<Comment> findCommentsByCommodityId(int commodityId) {
+        SnapshotList<Comment> commodityComments = commentsByCommodityId.get(commodityId);
+        if (commodityComments == null)
+            return Collections.emptyList();
+
+        return commodityComments.snapshot();
+    }
+
+    public List<Comment> findCommentsByCommodityIdBetween(int commodityId, long from, long to) {
+        List<Comment> commodityComments = findCommentsByCommodityId(commodityId);
+        int start = firstCommentAtOrAfter(commodityComments, from);
+        int end = (to == Long.MAX_VALUE) ? commodityComments.size() : firstCommentAtOrAfter(commodityComments, to + 1);
+        if (start >= end)
+            return Collections.emptyList();
+
+        return commodityComments.subList(start, end);
+    }
+
+    private static int firstCommentAtOrAfter(List<Comment> comments, long timestamp) {
+        int low = 0;
+        int high = comments.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comments.get(middle).getTimestamp() < timestamp)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
     }
 }
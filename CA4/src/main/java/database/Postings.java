@@ -0,0 +1,76 @@
+package database;
+
+import java.util.Arrays;
+
+class Postings {
+    record View(int[] ordinals, int size) {
+        static final View EMPTY = new View(new int[0], 0);
+
+        int get(int index) {
+            return ordinals[index];
+        }
+
+        View intersect(View other) {
+            int[] result = new int[Math.min(size, other.size)];
+            int count = 0;
+            int i = 0, j = 0;
+            while (i < size && j < other.size) {
+                if (ordinals[i] < other.ordinals[j])
+                    i++;
+                else if (ordinals[i] > other.ordinals[j])
+                    j++;
+                else {
+                    result[count++] = ordinals[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            return new View(result, count);
+        }
+
+        View union(View other) {
+            int[] result = new int[size + other.size];
+            int count = 0;
+            int i = 0, j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || (i < size && ordinals[i] < other.ordinals[j]))
+                    result[count++] = ordinals[i++];
+                else if (i == size || other.ordinals[j] < ordinals[i])
+                    result[count++] = other.ordinals[j++];
+                else {
+                    result[count++] = ordinals[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            return new View(result, count);
+        }
+    }
+
+    // Slots below the published size are never written again, so readers can use a view without locking.
+    private volatile View view = View.EMPTY;
+
+    synchronized void add(int ordinal) {
+        View current = view;
+        int position = Arrays.binarySearch(current.ordinals, 0, current.size, ordinal);
+        if (position >= 0)
+            return;
+        position = -position - 1;
+
+        int[] ordinals = current.ordinals;
+        if (position < current.size || current.size == ordinals.length) {
+            int capacity = (current.size == ordinals.length) ? Math.max(4, current.size * 2) : ordinals.length;
+            ordinals = new int[capacity];
+            System.arraycopy(current.ordinals, 0, ordinals, 0, position);
+            System.arraycopy(current.ordinals, position, ordinals, position + 1, current.size - position);
+        }
+        ordinals[position] = ordinal;
+        view = new View(ordinals, current.size + 1);
+    }
+
+    View view() {
+        return view;
+    }
+}
@@ -0,0 +1,88 @@
+package database;
+
+import model.Commodity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+class RatingIndex {
+    private record Entry(Commodity commodity, float rating, int ordinal) {
+    }
+
+    private static final Comparator<Entry> HIGHEST_RATING_FIRST =
+            Comparator.comparing(Entry::rating, Comparator.reverseOrder()).thenComparingInt(Entry::ordinal);
+
+    private final NavigableSet<Entry> allCommodities = new ConcurrentSkipListSet<>(HIGHEST_RATING_FIRST);
+    private final Map<String, NavigableSet<Entry>> commoditiesByCategory = new ConcurrentHashMap<>();
+    private final Map<Commodity, Entry> entries = new ConcurrentHashMap<>();
+
+    void add(Commodity commodity, int ordinal) {
+        Entry entry = new Entry(commodity, commodity.getRating(), ordinal);
+        entries.put(commodity, entry);
+        insert(entry);
+    }
+
+    void refresh(Commodity commodity) {
+        entries.computeIfPresent(commodity, (key, previous) -> {
+            Entry updated = new Entry(commodity, commodity.getRating(), previous.ordinal());
+            if (Float.compare(updated.rating(), previous.rating()) == 0)
+                return previous;
+
+            remove(previous);
+            insert(updated);
+            return updated;
+        });
+    }
+
+    void clear() {
+        allCommodities.clear();
+        commoditiesByCategory.clear();
+        entries.clear();
+    }
+
+    List<Commodity> topRated(int count) {
+        return firstCommodities(allCommodities, count);
+    }
+
+    List<Commodity> topRated(String category, int count) {
+        NavigableSet<Entry> categoryEntries = commoditiesByCategory.get(category);
+        if (categoryEntries == null)
+            return Collections.emptyList();
+
+        return firstCommodities(categoryEntries, count);
+    }
+
+    private void insert(Entry entry) {
+        allCommodities.add(entry);
+        if (entry.commodity().getCategories() != null)
+            for (String category : entry.commodity().getCategories())
+                if (category != null)
+                    commoditiesByCategory.computeIfAbsent(category, key -> new ConcurrentSkipListSet<>(HIGHEST_RATING_FIRST)).add(entry);
+    }
+
+    private void remove(Entry entry) {
+        allCommodities.remove(entry);
+        if (entry.commodity().getCategories() != null)
+            for (String category : entry.commodity().getCategories()) {
+                NavigableSet<Entry> categoryEntries = (category == null) ? null : commoditiesByCategory.get(category);
+                if (categoryEntries != null)
+                    categoryEntries.remove(entry);
+            }
+    }
+
+    private static List<Commodity> firstCommodities(NavigableSet<Entry> ranking, int count) {
+        List<Commodity> result = new ArrayList<>(Math.max(count, 0));
+        Iterator<Entry> iterator = ranking.iterator();
+        while (result.size() < count && iterator.hasNext())
+            result.add(iterator.next().commodity());
+
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package database;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+class SnapshotList<T> {
+    private record State(Object[] items, int size) {
+        static final State EMPTY = new State(new Object[0], 0);
+    }
+
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] items;
+        private final int size;
+
+        private Snapshot(State state) {
+            this.items = state.items();
+            this.size = state.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return (T) items[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final Comparator<? super T> order;
+
+    // Slots below the published size are never written again, so readers can iterate a snapshot without locking.
+    private volatile State state = State.EMPTY;
+
+    SnapshotList() {
+        this(null);
+    }
+
+    SnapshotList(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    synchronized int add(T item) {
+        State current = state;
+        int position = (order == null) ? current.size() : insertionPoint(current, item);
+
+        Object[] items = current.items();
+        if (position < current.size() || current.size() == items.length) {
+            int capacity = (current.size() == items.length) ? Math.max(8, current.size() * 2) : items.length;
+            items = new Object[capacity];
+            System.arraycopy(current.items(), 0, items, 0, position);
+            System.arraycopy(current.items(), position, items, position + 1, current.size() - position);
+        }
+        items[position] = item;
+        state = new State(items, current.size() + 1);
+
+        return position;
+    }
+
+    // Appends without keeping the order; bulk loads call sort() once they are done.
+    synchronized void append(T item) {
+        State current = state;
+        Object[] items = current.items();
+        if (current.size() == items.length)
+            items = Arrays.copyOf(items, Math.max(8, current.size() * 2));
+        items[current.size()] = item;
+        state = new State(items, current.size() + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized void sort() {
+        State current = state;
+        Object[] items = Arrays.copyOf(current.items(), current.items().length);
+        Arrays.sort((T[]) items, 0, current.size(), order);
+        state = new State(items, current.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private int insertionPoint(State current, T item) {
+        int low = 0;
+        int high = current.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (order.compare((T) current.items()[middle], item) > 0)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+
+        return low;
+    }
+
+    synchronized void clear() {
+        state = State.EMPTY;
+    }
+
+    List<T> snapshot() {
+        return new Snapshot<>(state);
+    }
+
+    int size() {
+        return state.size();
+    }
+}
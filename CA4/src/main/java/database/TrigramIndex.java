@@ -0,0 +1,51 @@
+package database;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class TrigramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Postings> postingsByTrigram = new ConcurrentHashMap<>();
+
+    static String normalize(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(chars[i]);
+
+        return new String(chars);
+    }
+
+    private static Set<String> trigramsOf(String normalizedText) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalizedText.length(); i++)
+            trigrams.add(normalizedText.substring(i, i + GRAM_LENGTH));
+
+        return trigrams;
+    }
+
+    void add(String text, int ordinal) {
+        for (String trigram : trigramsOf(normalize(text)))
+            postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(ordinal);
+    }
+
+    void clear() {
+        postingsByTrigram.clear();
+    }
+
+    // Returns null when the query is too short to have a trigram, so the caller has to scan.
+    Postings.View candidates(String normalizedQuery) {
+        Postings.View result = null;
+        for (String trigram : trigramsOf(normalizedQuery)) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings == null)
+                return Postings.View.EMPTY;
+
+            result = (result == null) ? postings.view() : result.intersect(postings.view());
+        }
+
+        return result;
+    }
+}
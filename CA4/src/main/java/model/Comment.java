@@ -1,29 +1,52 @@
 package model;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Getter
 @Setter
 @NoArgsConstructor
 public class Comment {
+    public static final byte LIKE = 1;
+    public static final byte NO_VOTE = 0;
+    public static final byte DISLIKE = -1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Comment.class);
+    private static final ZoneId DATE_ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(DATE_ZONE);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     int id;
     private String userEmail;
     private String username;
     private int commodityId;
     private String text;
-    private String date;
+    private long timestamp;
 
-    private int like;
-    private int dislike;
-    private Map<String, String> userVote = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicInteger like = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicInteger dislike = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<String, Byte> userVote = new ConcurrentHashMap<>();
 
     public Comment(int id, String userEmail, String username, int commodityId, String text) {
         this.id = id;
@@ -31,27 +54,107 @@ public class Comment {
         this.username = username;
         this.commodityId = commodityId;
         this.text = text;
-        this.date = getCurrentDate();
+        this.timestamp = System.currentTimeMillis();
     }
 
-    public String getCurrentDate() {
-        Date currentDate = new Date();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        return dateFormat.format(currentDate);
+    public String getDate() {
+        return DATE_TIME_FORMAT.format(Instant.ofEpochMilli(this.timestamp));
+    }
+
+    public void setDate(String date) {
+        this.timestamp = 0;
+        if (date == null) {
+            LOGGER.warn("Comment {} has no date", this.id);
+            return;
+        }
+
+        try {
+            if (date.length() == 10)
+                this.timestamp = LocalDate.parse(date, DATE_FORMAT).atStartOfDay(DATE_ZONE).toInstant().toEpochMilli();
+            else
+                this.timestamp = LocalDateTime.parse(date, DATE_TIME_FORMAT).atZone(DATE_ZONE).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            LOGGER.warn("Comment {} has an unparseable date '{}'", this.id, date);
+        }
     }
 
     public void addUserVote(String userName, String vote) {
-        userVote.put(userName, vote);
+        byte encodedVote = encodeVote(vote);
+        Byte previousVote = userVote.put(userName, encodedVote);
+        if (previousVote != null)
+            countVote(previousVote, -1);
+        countVote(encodedVote, 1);
+    }
+
+    private static byte encodeVote(String vote) {
+        if ("like".equals(vote))
+            return LIKE;
+        if ("dislike".equals(vote))
+            return DISLIKE;
+
+        return NO_VOTE;
+    }
+
+    private static String decodeVote(byte vote) {
+        if (vote == LIKE)
+            return "like";
+        if (vote == DISLIKE)
+            return "dislike";
+
+        return "none";
+    }
+
+    public byte getVote(String userName) {
+        return userVote.getOrDefault(userName, NO_VOTE);
+    }
+
+    private void countVote(byte vote, int delta) {
+        if (vote == LIKE)
+            this.like.addAndGet(delta);
+        else if (vote == DISLIKE)
+            this.dislike.addAndGet(delta);
+    }
+
+    public int getLike() {
+        return this.like.get();
+    }
+
+    public void setLike(int like) {
+        this.like.set(like);
+    }
+
+    public int getDislike() {
+        return this.dislike.get();
+    }
+
+    public void setDislike(int dislike) {
+        this.dislike.set(dislike);
+    }
+
+    public Map<String, String> getUserVote() {
+        Map<String, String> decodedVotes = new HashMap<>();
+        for (var vote : userVote.entrySet())
+            decodedVotes.put(vote.getKey(), decodeVote(vote.getValue()));
+
+        return decodedVotes;
+    }
 
-        this.like = 0;
-        this.dislike = 0;
+    public void setUserVote(Map<String, String> userVote) {
+        Map<String, Byte> encodedVotes = new ConcurrentHashMap<>();
+        for (var vote : userVote.entrySet())
+            encodedVotes.put(vote.getKey(), encodeVote(vote.getValue()));
+        this.userVote = encodedVotes;
 
-        for (String key : userVote.keySet()) {
-            if (userVote.get(key).equals("like"))
-                this.like += 1;
-            else if (userVote.get(key).equals("dislike"))
-                this.dislike += 1;
+        int likes = 0;
+        int dislikes = 0;
+        for (byte vote : this.userVote.values()) {
+            if (vote == LIKE)
+                likes += 1;
+            else if (vote == DISLIKE)
+                dislikes += 1;
         }
+        this.like.set(likes);
+        this.dislike.set(dislikes);
     }
 
 }
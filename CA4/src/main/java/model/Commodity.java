@@ -2,47 +2,126 @@ package model;
 
 import exceptions.InvalidScoreRange;
 import exceptions.NotInStock;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 @Setter
 public class Commodity {
+    public static final float MAX_RATING = 10;
+
+    private static final AtomicLong priceVersion = new AtomicLong();
+
     private String id;
     private String name;
     private String providerId;
-    private int price;
+    private volatile int price;
     private ArrayList<String> categories = new ArrayList<>();
     private float rating;
-    private int inStock;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicInteger inStock = new AtomicInteger();
     private String image;
 
-    private Map<String, Integer> userRate = new HashMap<>();
+    private Map<String, Integer> userRate = new ConcurrentHashMap<>();
     private float initRate;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicReference<RateTotal> rateTotal = new AtomicReference<>(RateTotal.EMPTY);
+
+    private record RateTotal(long sum, int count) {
+        static final RateTotal EMPTY = new RateTotal(0, 0);
+
+        RateTotal plus(long sumDelta, int countDelta) {
+            return new RateTotal(sum + sumDelta, count + countDelta);
+        }
+    }
+
+    public static long getPriceVersion() {
+        return priceVersion.get();
+    }
+
+    public void setPrice(int price) {
+        this.price = price;
+        priceVersion.incrementAndGet();
+    }
+
+    public int getInStock() {
+        return this.inStock.get();
+    }
+
+    public void setInStock(int inStock) {
+        this.inStock.set(inStock);
+    }
+
     public void updateInStock(int amount) throws NotInStock {
-        if ((this.inStock + amount) < 0)
-            throw new NotInStock();
-        this.inStock += amount;
+        int current;
+        do {
+            current = this.inStock.get();
+            if (current + amount < 0)
+                throw new NotInStock();
+        } while (!this.inStock.compareAndSet(current, current + amount));
+    }
+
+    public void reserveStock(int amount) throws NotInStock {
+        updateInStock(-amount);
+    }
+
+    public void releaseStock(int amount) {
+        this.inStock.addAndGet(amount);
     }
 
     public void addRate(String username, int score) throws InvalidScoreRange {
         if (score < 1 || score > 10 )
             throw new InvalidScoreRange();
-        userRate.put(username, score);
-        this.calcRating();
+
+        Integer previousScore = userRate.put(username, score);
+        if (previousScore == null)
+            rateTotal.updateAndGet(total -> total.plus(score, 1));
+        else if (previousScore != score)
+            rateTotal.updateAndGet(total -> total.plus(score - previousScore, 0));
     }
 
-    private void calcRating() {
-        float sum = 0;
-        for (Map.Entry<String, Integer> entry : this.userRate.entrySet()) {
-            sum += entry.getValue();
-        }
+    // Ratings stay within 0..MAX_RATING, so a suggestion scored 11 + rating for sharing a category
+    // always outranks one scored by its rating alone; SuggestionCache relies on this.
+    public void setRating(float rating) {
+        this.rating = clampRating(rating);
+    }
+
+    public void setInitRate(float initRate) {
+        this.initRate = clampRating(initRate);
+    }
+
+    private static float clampRating(float rating) {
+        if (Float.isNaN(rating))
+            return 0;
+
+        return Math.max(0, Math.min(rating, MAX_RATING));
+    }
+
+    public float getRating() {
+        RateTotal total = rateTotal.get();
+        if (total.count() == 0)
+            return this.rating;
+
+        return (this.initRate + total.sum()) / (total.count() + 1);
+    }
+
+    public void setUserRate(Map<String, Integer> userRate) {
+        this.userRate = new ConcurrentHashMap<>(userRate);
 
-        this.rating = ((this.initRate + sum) / (this.userRate.size() + 1));
+        long sum = 0;
+        for (int score : this.userRate.values())
+            sum += score;
+        rateTotal.set(new RateTotal(sum, this.userRate.size()));
     }
 }
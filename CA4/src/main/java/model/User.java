@@ -3,27 +3,45 @@ package model;
 import exceptions.CommodityIsNotInBuyList;
 import exceptions.InsufficientCredit;
 import exceptions.InvalidCreditRange;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Getter
 @Setter
 @NoArgsConstructor
 public class User {
+    public static final long CREDIT_SCALE = 100;
+    private static final long STALE_PRICE_VERSION = -1;
+
     private String username;
     private String password;
     private String email;
     private String birthDate;
     private String address;
-    private float credit;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong credit = new AtomicLong();
+
+    private Map<Integer, Integer> commoditiesRates = new ConcurrentHashMap<>();
+    private Map<String, Integer> buyList = new ConcurrentHashMap<>();
+    private Map<String, Integer> purchasedList = new ConcurrentHashMap<>();
 
-    private Map<Integer, Integer> commoditiesRates = new HashMap<>();
-    private Map<String, Integer> buyList = new HashMap<>();
-    private Map<String, Integer> purchasedList = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Object buyListLock = new Object();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long buyListPrice;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long buyListPriceVersion = Commodity.getPriceVersion();
 
     public User(String username, String password, String email, String birthDate, String address) {
         this.username = username;
@@ -33,47 +51,111 @@ public class User {
         this.address = address;
     }
 
+    public static long toCreditUnits(float amount) {
+        return Math.round((double) amount * CREDIT_SCALE);
+    }
+
+    public float getCredit() {
+        return (float) this.credit.get() / CREDIT_SCALE;
+    }
+
+    public void setCredit(float credit) {
+        this.credit.set(toCreditUnits(credit));
+    }
+
     public void addCredit(float amount) throws InvalidCreditRange {
-        if (amount < 0)
+        if (!Float.isFinite(amount) || amount < 0 || (double) amount * CREDIT_SCALE >= Long.MAX_VALUE)
             throw new InvalidCreditRange();
 
-        this.credit += amount;
+        long units = toCreditUnits(amount);
+        long current;
+        long updated;
+        do {
+            current = this.credit.get();
+            try {
+                updated = Math.addExact(current, units);
+            } catch (ArithmeticException e) {
+                throw new InvalidCreditRange();
+            }
+        } while (!this.credit.compareAndSet(current, updated));
     }
 
     public void withdrawCredit(float amount) throws InsufficientCredit {
-        if (amount > this.credit)
-            throw new InsufficientCredit();
+        withdrawCreditUnits(toCreditUnits(amount));
+    }
+
+    public void withdrawCreditUnits(long units) throws InsufficientCredit {
+        long current;
+        do {
+            current = this.credit.get();
+            if (units > current)
+                throw new InsufficientCredit();
+        } while (!this.credit.compareAndSet(current, current - units));
+    }
 
-        this.credit -= amount;
+    public void setCommoditiesRates(Map<Integer, Integer> commoditiesRates) {
+        this.commoditiesRates = new ConcurrentHashMap<>(commoditiesRates);
+    }
+
+    public void setBuyList(Map<String, Integer> buyList) {
+        synchronized (buyListLock) {
+            this.buyList = new ConcurrentHashMap<>(buyList);
+            this.buyListPriceVersion = STALE_PRICE_VERSION;
+        }
+    }
+
+    public void setPurchasedList(Map<String, Integer> purchasedList) {
+        this.purchasedList = new ConcurrentHashMap<>(purchasedList);
+    }
+
+    // The cached price is only trusted while no commodity price has changed since it was computed.
+    public long getBuyListPrice(Function<String, Commodity> commodities) {
+        synchronized (buyListLock) {
+            long priceVersion = Commodity.getPriceVersion();
+            if (this.buyListPriceVersion != priceVersion) {
+                long price = 0;
+                for (var entry : this.buyList.entrySet()) {
+                    Commodity commodity = commodities.apply(entry.getKey());
+                    if (commodity != null)
+                        price += (long) commodity.getPrice() * entry.getValue();
+                }
+                this.buyListPrice = price;
+                this.buyListPriceVersion = priceVersion;
+            }
+
+            return this.buyListPrice;
+        }
     }
 
     public void addBuyItem(Commodity commodity) {
-        String id = commodity.getId();
-        if (this.buyList.containsKey(id)) {
-            int existingQuantity = this.buyList.get(id);
-            this.buyList.put(id, existingQuantity + 1);
-        } else
-            this.buyList.put(id, 1);
+        synchronized (buyListLock) {
+            this.buyList.merge(commodity.getId(), 1, Integer::sum);
+            this.buyListPrice += commodity.getPrice();
+        }
     }
 
     public void addPurchasedItem(String id, int quantity) {
-        if (this.purchasedList.containsKey(id)) {
-            int existingQuantity = this.purchasedList.get(id);
-            this.purchasedList.put(id, existingQuantity + quantity);
-        } else
-            this.purchasedList.put(id, quantity);
+        this.purchasedList.merge(id, quantity, Integer::sum);
     }
 
     public void removeItemFromBuyList(Commodity commodity) throws CommodityIsNotInBuyList {
-        String id = commodity.getId();
-        if (this.buyList.containsKey(id)) {
-            int existingQuantity = this.buyList.get(id);
-            if (existingQuantity == 1)
-                this.buyList.remove(commodity.getId());
-            else
-                this.buyList.put(id, existingQuantity - 1);
-        } else
-            throw new CommodityIsNotInBuyList();
+        synchronized (buyListLock) {
+            if (!this.buyList.containsKey(commodity.getId()))
+                throw new CommodityIsNotInBuyList();
+
+            this.buyList.computeIfPresent(commodity.getId(), (id, existingQuantity) ->
+                    (existingQuantity > 1) ? existingQuantity - 1 : null);
+            this.buyListPrice -= commodity.getPrice();
+        }
+    }
+
+    public void removeBuyItems(Map<String, Integer> items) {
+        synchronized (buyListLock) {
+            for (var item : items.entrySet())
+                this.buyList.computeIfPresent(item.getKey(), (id, existingQuantity) ->
+                        (existingQuantity > item.getValue()) ? existingQuantity - item.getValue() : null);
+            this.buyListPriceVersion = STALE_PRICE_VERSION;
+        }
     }
 
 }
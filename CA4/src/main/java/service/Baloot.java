@@ -7,36 +7,111 @@ import model.Commodity;
 import model.Provider;
 import model.User;
 import exceptions.*;
+import utils.BuyListItem;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 
 public class Baloot {
+    public static final int DEFAULT_NUMBER_OF_COMMODITY_SUGGESTIONS = 4;
+
     private static Baloot instance;
 
+    private final Database database;
+    private final Function<String, Commodity> commodityLookup;
+    private volatile boolean loaded;
+    private final SuggestionCache suggestionCache = new SuggestionCache();
+    private volatile Map<String, Long> loadTimings = Collections.emptyMap();
+
+    private record ScoredCommodity(Commodity commodity, float score) {
+    }
+
+    private interface DataLoader {
+        void load() throws IOException;
+    }
+
     private Baloot() {
-        fetchAndStoreData();
+        this(Database.getInstance());
+        bootstrap();
+    }
+
+    Baloot(Database database) {
+        this.database = database;
+        this.commodityLookup = database::findCommodity;
     }
 
-    public static Baloot getInstance() {
+    public static synchronized Baloot getInstance() {
         if (instance == null) {
             instance = new Baloot();
         }
         return instance;
     }
 
-    public void fetchAndStoreData() {
-        DataParser dataParser = new DataParser(Database.getInstance());
+    public synchronized void bootstrap() {
+        if (!loaded)
+            fetchAndStoreData();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized void fetchAndStoreData() {
+        loaded = false;
+        DataParser dataParser = new DataParser(database);
+        Map<String, Long> timings = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
 
+        ExecutorService executor = Executors.newFixedThreadPool(4);
         try {
-            dataParser.getUsersList();
-            dataParser.getProvidersList();
-            dataParser.getCommoditiesList();
-            dataParser.getCommentsList();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            CompletableFuture.allOf(
+                    loadAsync("users", dataParser::getUsersList, timings, executor),
+                    loadAsync("providers", dataParser::getProvidersList, timings, executor),
+                    loadAsync("commodities", dataParser::getCommoditiesList, timings, executor),
+                    loadAsync("comments", dataParser::getCommentsList, timings, executor)
+            ).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException ioException)
+                throw new RuntimeException(ioException.getCause());
+            throw e;
+        } finally {
+            executor.shutdown();
         }
+
+        suggestionCache.clear();
+        timings.put("total", elapsedMillis(start));
+        loadTimings = Map.copyOf(timings);
+        loaded = true;
+    }
+
+    private static CompletableFuture<Void> loadAsync(String phase, DataLoader loader, Map<String, Long> timings, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                loader.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            timings.put(phase, elapsedMillis(start));
+        }, executor);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    public Map<String, Long> getLoadTimings() {
+        return loadTimings;
     }
 
     public void login(String userId, String password) throws NotExistentUser, IncorrectPassword {
@@ -67,128 +142,131 @@ public class Baloot {
     }
 
     public float getCurrentBuyListPrice(User user) {
-        float total = 0;
-        for (var entry : new ArrayList<>(user.getBuyList().entrySet())) {
-            try {
-                Commodity commodity = getCommodityById(entry.getKey());
-                total += commodity.getPrice() * entry.getValue();
-            } catch (NotExistentCommodity ignored) {
-            }
-        }
-
-        return total;
+        return user.getBuyListPrice(commodityLookup);
     }
 
     public void withdrawPayableAmount(User user) throws InsufficientCredit, NotInStock {
-        float amount = getCurrentBuyListPrice(user);
-        user.withdrawCredit(amount);
+        synchronized (user) {
+            Map<String, Integer> buyList = new HashMap<>(user.getBuyList());
+            Map<Commodity, Integer> purchases = new TreeMap<>(Comparator.comparing(Commodity::getId));
+            for (var entry : buyList.entrySet()) {
+                Commodity commodity = database.findCommodity(entry.getKey());
+                if (commodity != null)
+                    purchases.merge(commodity, entry.getValue(), Integer::sum);
+            }
 
-        for (var entry : new ArrayList<>(user.getBuyList().entrySet())) {
-            user.addPurchasedItem(entry.getKey(), entry.getValue());
+            List<Map.Entry<Commodity, Integer>> reserved = new ArrayList<>();
             try {
-                Commodity commodity = getCommodityById(entry.getKey());
-                commodity.updateInStock(-entry.getValue());
-            } catch (NotExistentCommodity ignored) {
-            } catch (NotInStock e) {
-                throw new NotInStock();
+                long amount = 0;
+                for (var purchase : purchases.entrySet()) {
+                    purchase.getKey().reserveStock(purchase.getValue());
+                    reserved.add(purchase);
+                    amount += (long) purchase.getKey().getPrice() * purchase.getValue();
+                }
+
+                user.withdrawCreditUnits(amount * User.CREDIT_SCALE);
+            } catch (NotInStock | InsufficientCredit e) {
+                for (var reservation : reserved)
+                    reservation.getKey().releaseStock(reservation.getValue());
+                throw e;
             }
-        }
 
-        user.setBuyList(new HashMap<>());
+            for (var entry : buyList.entrySet())
+                user.addPurchasedItem(entry.getKey(), entry.getValue());
+            user.removeBuyItems(buyList);
+        }
     }
 
     public User getUserById(String userId) throws NotExistentUser {
-        for (User user : Database.getInstance().getUsers())
-            if (user.getUsername().equals(userId))
-                return user;
+        User user = database.findUser(userId);
+        if (user == null)
+            throw new NotExistentUser();
 
-        throw new NotExistentUser();
+        return user;
     }
 
     public Provider getProviderById(String providerId) throws NotExistentProvider {
-        for (Provider provider : Database.getInstance().getProviders())
-            if (Objects.equals(provider.getId(), providerId))
-                return provider;
+        Provider provider = database.findProvider(providerId);
+        if (provider == null)
+            throw new NotExistentProvider();
 
-        throw new NotExistentProvider();
+        return provider;
     }
 
     public Commodity getCommodityById(String commodityId) throws NotExistentCommodity {
-        for (Commodity commodity : Database.getInstance().getCommodities())
-            if (Objects.equals(commodity.getId(), commodityId))
-                return commodity;
+        Commodity commodity = database.findCommodity(commodityId);
+        if (commodity == null)
+            throw new NotExistentCommodity();
 
-        throw new NotExistentCommodity();
+        return commodity;
     }
 
-    public ArrayList<Commodity> getCommodities() {
-        return Database.getInstance().getCommodities();
+    public List<Commodity> getCommodities() {
+        return database.getCommodities();
     }
 
-    public ArrayList<Commodity> getCommoditiesProvidedByProvider(String providerId) {
-        ArrayList<Commodity> commodities = new ArrayList<>();
-        for (Commodity commodity : Database.getInstance().getCommodities())
-            if (Objects.equals(commodity.getProviderId(), providerId))
-                commodities.add(commodity);
+    public ArrayList<Commodity> getCommodities(int offset, int limit) {
+        List<Commodity> commodities = database.getCommodities();
+        int from = Math.min(Math.max(offset, 0), commodities.size());
+        int to = from + Math.min(Math.max(limit, 0), commodities.size() - from);
+
+        return new ArrayList<>(commodities.subList(from, to));
+    }
 
-        return commodities;
+    public ArrayList<Commodity> getCommoditiesProvidedByProvider(String providerId) {
+        return new ArrayList<>(database.findCommoditiesByProviderId(providerId));
     }
 
     public ArrayList<Comment> getCommentsForCommodity(int commodityId) {
-        ArrayList<Comment> comments = new ArrayList<>();
-        for (Comment comment : Database.getInstance().getComments())
-            if (comment.getCommodityId() == commodityId)
-                comments.add(comment);
+        return new ArrayList<>(database.findCommentsByCommodityId(commodityId));
+    }
+
+    public ArrayList<Comment> getCommentsForCommodity(int commodityId, int offset, int limit) {
+        return page(database.findCommentsByCommodityId(commodityId), offset, limit);
+    }
 
-        return comments;
+    public ArrayList<Comment> getCommentsForCommodityBetween(int commodityId, long from, long to, int offset, int limit) {
+        return page(database.findCommentsByCommodityIdBetween(commodityId, from, to), offset, limit);
+    }
+
+    private static <T> ArrayList<T> page(List<T> items, int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), items.size());
+        int to = from + Math.min(Math.max(limit, 0), items.size() - from);
+
+        return new ArrayList<>(items.subList(from, to));
     }
 
     public Comment getCommentById(int commentId) throws NotExistentComment {
-        for (Comment comment : Database.getInstance().getComments())
-            if (comment.getId() == commentId)
-                return comment;
+        Comment comment = database.findComment(commentId);
+        if (comment == null)
+            throw new NotExistentComment();
 
-        throw new NotExistentComment();
+        return comment;
     }
 
 
     public ArrayList<Commodity> filterCommoditiesByCategory(String category) {
-        ArrayList<Commodity> result = new ArrayList<>();
-        for (Commodity commodity : Database.getInstance().getCommodities())
-            if (commodity.getCategories().contains(category))
-                result.add(commodity);
+        return new ArrayList<>(database.findCommoditiesByCategory(category));
+    }
 
-        return result;
+    public ArrayList<Commodity> filterCommoditiesByCategories(Collection<String> categories, boolean matchAll) {
+        return new ArrayList<>(database.findCommoditiesByCategories(categories, matchAll));
     }
 
     public ArrayList<Commodity> filterCommoditiesByName(String name) {
-        ArrayList<Commodity> result = new ArrayList<>();
-        for (Commodity commodity : Database.getInstance().getCommodities())
-            if (commodity.getName().contains(name))
-                result.add(commodity);
+        return filterCommoditiesByName(name, false);
+    }
 
-        return result;
+    public ArrayList<Commodity> filterCommoditiesByName(String name, boolean ignoreCase) {
+        return new ArrayList<>(database.findCommoditiesByName(name, ignoreCase));
     }
 
     public ArrayList<Commodity> filterCommoditiesByProviderName(String name) {
-        String providerId = "";
-        for (Provider provider : Database.getInstance().getProviders()) {
-            if (provider.getName().equals(name)) {
-                providerId = provider.getId();
-                break;
-            }
-        }
-
-        ArrayList<Commodity> result = new ArrayList<>();
-
-        if (Objects.equals(providerId, ""))
-            return result;
+        String providerId = database.findProviderIdByName(name);
+        if (providerId == null)
+            return new ArrayList<>();
 
-        for (Commodity commodity : Database.getInstance().getCommodities())
-            if (Objects.equals(commodity.getProviderId(), providerId))
-                result.add(commodity);
-
-        return result;
+        return getCommoditiesProvidedByProvider(providerId);
     }
 
 
@@ -202,20 +280,34 @@ public class Baloot {
         return user.getPurchasedList();
     }
 
+    public ArrayList<BuyListItem> getCommoditiesByIds(Map<String, Integer> quantities) {
+        ArrayList<BuyListItem> items = new ArrayList<>(quantities.size());
+        for (var entry : quantities.entrySet()) {
+            Commodity commodity = database.findCommodity(entry.getKey());
+            items.add(new BuyListItem(entry.getKey(), commodity, entry.getValue()));
+        }
+
+        return items;
+    }
+
     public void addUser(User user) throws UsernameAlreadyTaken {
-        for (User user1 : Database.getInstance().getUsers())
-            if (user1.getUsername().equals(user.getUsername()))
-                throw new UsernameAlreadyTaken();
+        if (database.findUser(user.getUsername()) != null)
+            throw new UsernameAlreadyTaken();
 
-        Database.getInstance().addUser(user);
+        database.addUser(user);
+    }
+
+    public void addCommodity(Commodity commodity) {
+        database.addCommodity(commodity);
+        invalidateSuggestions(commodity);
     }
 
     public void addComment(Comment comment) {
-        Database.getInstance().addComment(comment);
+        database.addComment(comment);
     }
 
     public int generateCommentId() {
-        return Database.getInstance().getComments().size();
+        return database.generateCommentId();
     }
 
     public int isInSimilarCategoryWithFirstCommodity(Commodity c1, Commodity c2) {
@@ -227,30 +319,80 @@ public class Baloot {
     }
 
     public ArrayList<Commodity> suggestSimilarCommodities(Commodity commodity) {
-        int MAX_NUMBER_OF_COMMODITY_SUGGESTIONS = 4;
-        ArrayList<Commodity> results = new ArrayList<>();
-        Hashtable<Commodity, Float> commodityScore = new Hashtable<>();
+        return suggestSimilarCommodities(commodity, DEFAULT_NUMBER_OF_COMMODITY_SUGGESTIONS);
+    }
 
-        for (Commodity commodity1 : Database.getInstance().getCommodities()) {
-            if (commodity == commodity1)
-                continue;
+    public ArrayList<Commodity> suggestSimilarCommodities(Commodity commodity, int count) {
+        if (commodity.getId() == null)
+            return computeSimilarCommodities(commodity, count);
 
-            float score = 11 * isInSimilarCategoryWithFirstCommodity(commodity, commodity1) + commodity1.getRating();
-            commodityScore.put(commodity1, score);
-        }
+        List<Commodity> cachedSuggestions = suggestionCache.get(commodity.getId(), count);
+        if (cachedSuggestions != null)
+            return new ArrayList<>(cachedSuggestions);
+
+        long version = suggestionCache.version();
+        ArrayList<Commodity> suggestions = computeSimilarCommodities(commodity, count);
+        suggestionCache.put(commodity.getId(), commodity.getCategories(), count, suggestions,
+                isSameCategoryOnly(commodity, suggestions, count), version);
+
+        return suggestions;
+    }
+
+    public void rateCommodity(String commodityId, String username, int score)
+            throws NotExistentCommodity, InvalidScoreRange {
+        Commodity commodity = getCommodityById(commodityId);
+        commodity.addRate(username, score);
+        invalidateSuggestions(commodity);
+    }
+
+    private void invalidateSuggestions(Commodity changedCommodity) {
+        database.refreshCommodityRating(changedCommodity);
+        suggestionCache.invalidate(changedCommodity.getId(), changedCommodity.getCategories());
+    }
 
-        List<Map.Entry<Commodity, Float>> list = new ArrayList<>(commodityScore.entrySet());
-        list.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+    private boolean isSameCategoryOnly(Commodity commodity, List<Commodity> suggestions, int count) {
+        if (suggestions.size() < count)
+            return false;
 
-        int count = 0;
-        for (Map.Entry<Commodity, Float> entry : list) {
-            results.add(entry.getKey());
+        for (Commodity suggestion : suggestions)
+            if (isInSimilarCategoryWithFirstCommodity(commodity, suggestion) == 0)
+                return false;
 
-            count += 1;
-            if (count >= MAX_NUMBER_OF_COMMODITY_SUGGESTIONS)
-                break;
+        return true;
+    }
+
+    // Every higher rated commodity of a shared category outranks a suggestion from that category, and
+    // every higher rated commodity outranks a suggestion that shares no category, so the top count + 1
+    // of each category and of the whole catalog (one may be the commodity itself) hold the top count
+    // suggestions whatever range the ratings are in.
+    private Set<Commodity> collectSuggestionCandidates(Commodity commodity, int count) {
+        Set<Commodity> candidates = new LinkedHashSet<>();
+        for (String category : commodity.getCategories())
+            candidates.addAll(database.findTopRatedCommoditiesByCategory(category, count + 1));
+        candidates.addAll(database.findTopRatedCommodities(count + 1));
+        candidates.remove(commodity);
+
+        return candidates;
+    }
+
+    private ArrayList<Commodity> computeSimilarCommodities(Commodity commodity, int count) {
+        PriorityQueue<ScoredCommodity> topScored = new PriorityQueue<>(count + 1, Comparator.comparingDouble(ScoredCommodity::score));
+
+        for (Commodity commodity1 : collectSuggestionCandidates(commodity, count)) {
+            float score = 11 * isInSimilarCategoryWithFirstCommodity(commodity, commodity1) + commodity1.getRating();
+            if (topScored.size() < count)
+                topScored.add(new ScoredCommodity(commodity1, score));
+            else if (count > 0 && score > topScored.peek().score()) {
+                topScored.poll();
+                topScored.add(new ScoredCommodity(commodity1, score));
+            }
         }
 
+        ArrayList<Commodity> results = new ArrayList<>(topScored.size());
+        while (!topScored.isEmpty())
+            results.add(topScored.poll().commodity());
+        Collections.reverse(results);
+
         return results;
     }
 
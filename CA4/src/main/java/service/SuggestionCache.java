@@ -0,0 +1,78 @@
+package service;
+
+import model.Commodity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+class SuggestionCache {
+    private record Entry(int count, List<Commodity> suggestions) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> crossCategoryEntries = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<String>> entriesByCategory = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    long version() {
+        return version.get();
+    }
+
+    List<Commodity> get(String commodityId, int count) {
+        Entry entry = entries.get(commodityId);
+        if (entry == null || entry.count() < count)
+            return null;
+
+        return entry.suggestions().subList(0, Math.min(count, entry.suggestions().size()));
+    }
+
+    // Entries made only of same-category suggestions can only be changed by commodities sharing a category,
+    // since ratings never exceed Commodity.MAX_RATING and so cannot outrank a same-category score of 11 + rating;
+    // the rest are dropped on every invalidation. An entry computed before an invalidation is never kept.
+    void put(String commodityId, Collection<String> categories, int count, List<Commodity> suggestions,
+             boolean sameCategoryOnly, long computedAtVersion) {
+        Entry entry = new Entry(count, List.copyOf(suggestions));
+        if (!sameCategoryOnly)
+            crossCategoryEntries.add(commodityId);
+        for (String category : categories)
+            if (category != null)
+                entriesByCategory.computeIfAbsent(category, key -> ConcurrentHashMap.newKeySet()).add(commodityId);
+        entries.put(commodityId, entry);
+
+        if (version.get() != computedAtVersion)
+            entries.remove(commodityId, entry);
+    }
+
+    void invalidate(String commodityId, Collection<String> categories) {
+        version.incrementAndGet();
+        if (commodityId != null)
+            entries.remove(commodityId);
+
+        for (String category : categories) {
+            Set<String> categoryEntries = (category == null) ? null : entriesByCategory.get(category);
+            if (categoryEntries == null)
+                continue;
+
+            for (String cachedId : categoryEntries) {
+                categoryEntries.remove(cachedId);
+                entries.remove(cachedId);
+            }
+        }
+
+        for (String cachedId : crossCategoryEntries) {
+            crossCategoryEntries.remove(cachedId);
+            entries.remove(cachedId);
+        }
+    }
+
+    void clear() {
+        version.incrementAndGet();
+        entries.clear();
+        crossCategoryEntries.clear();
+        entriesByCategory.clear();
+    }
+}
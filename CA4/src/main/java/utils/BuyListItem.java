@@ -7,10 +7,16 @@ import lombok.Setter;
 @Getter
 @Setter
 public class BuyListItem {
+    private String commodityId;
     private Commodity commodity;
     private int quantity;
 
     public BuyListItem(Commodity commodity, int quantity) {
+        this(commodity.getId(), commodity, quantity);
+    }
+
+    public BuyListItem(String commodityId, Commodity commodity, int quantity) {
+        this.commodityId = commodityId;
         this.commodity = commodity;
         this.quantity = quantity;
     }
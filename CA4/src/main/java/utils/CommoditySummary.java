@@ -0,0 +1,34 @@
+package utils;
+
+import lombok.Getter;
+import model.Commodity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class CommoditySummary {
+    private final String id;
+    private final String name;
+    private final int price;
+    private final float rating;
+    private final int inStock;
+    private final String image;
+
+    public CommoditySummary(Commodity commodity) {
+        this.id = commodity.getId();
+        this.name = commodity.getName();
+        this.price = commodity.getPrice();
+        this.rating = commodity.getRating();
+        this.inStock = commodity.getInStock();
+        this.image = commodity.getImage();
+    }
+
+    public static ArrayList<CommoditySummary> summarize(List<Commodity> commodities) {
+        ArrayList<CommoditySummary> summaries = new ArrayList<>(commodities.size());
+        for (Commodity commodity : commodities)
+            summaries.add(new CommoditySummary(commodity));
+
+        return summaries;
+    }
+}
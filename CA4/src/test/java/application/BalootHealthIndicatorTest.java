@@ -0,0 +1,37 @@
+package application;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import service.Baloot;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BalootHealthIndicatorTest {
+
+    @Test
+    @DisplayName("health should be up with the load timings once the data is loaded")
+    public void upWhenLoaded() {
+        Baloot baloot = mock(Baloot.class);
+        when(baloot.isLoaded()).thenReturn(true);
+        when(baloot.getLoadTimings()).thenReturn(Map.of("total", 42L));
+
+        Health health = new BalootHealthIndicator(baloot).health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(Map.of("total", 42L), health.getDetails().get("loadTimingsMillis"));
+    }
+
+    @Test
+    @DisplayName("health should be out of service until the data is loaded")
+    public void outOfServiceWhenNotLoaded() {
+        Baloot baloot = mock(Baloot.class);
+        when(baloot.isLoaded()).thenReturn(false);
+
+        assertEquals(Status.OUT_OF_SERVICE, new BalootHealthIndicator(baloot).health().getStatus());
+    }
+}
@@ -0,0 +1,81 @@
+package controllers;
+
+import application.BalootApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exceptions.NotExistentUser;
+import model.Commodity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import service.Baloot;
+import utils.BuyListItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(classes = BalootApplication.class)
+public class BuyListControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private BuyListController buyListController;
+
+    @MockBean
+    private Baloot balootMock;
+
+    @BeforeEach
+    public void setUp() {
+        buyListController.setBaloot(balootMock);
+    }
+
+    @Test
+    @DisplayName("Get buy list should return the resolved items and the ids that no longer exist")
+    public void testGetBuyListCorrectly() throws Exception {
+        Commodity commodity = new Commodity();
+        commodity.setId("1");
+        Map<String, Integer> buyList = Map.of("1", 2, "missing", 1);
+        when(balootMock.getUserBuyList("sana")).thenReturn(buyList);
+        when(balootMock.getCommoditiesByIds(buyList)).thenReturn(new ArrayList<>(List.of(
+                new BuyListItem(commodity, 2), new BuyListItem("missing", null, 1))));
+
+        mvc.perform(post("/buy-list")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(Map.of("username", "sana"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].commodityId").value("1"))
+                .andExpect(jsonPath("$[0].commodity.id").value("1"))
+                .andExpect(jsonPath("$[0].quantity").value(2))
+                .andExpect(jsonPath("$[1].commodityId").value("missing"))
+                .andExpect(jsonPath("$[1].commodity").doesNotExist())
+                .andExpect(jsonPath("$[1].quantity").value(1));
+        verify(balootMock, never()).getCommodityById(any());
+    }
+
+    @Test
+    @DisplayName("Get purchased list should return 404 when the user does not exist")
+    public void testGetPurchasedListNotFoundWhenUserDoesNotExist() throws Exception {
+        when(balootMock.getUserPurchasedList("sana")).thenThrow(new NotExistentUser());
+
+        mvc.perform(post("/purchased-list")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(Map.of("username", "sana"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
@@ -0,0 +1,104 @@
+package controllers;
+
+import application.BalootApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import exceptions.NotExistentComment;
+import model.Comment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import service.Baloot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static defines.Errors.MISSING_USER_ID;
+import static defines.Errors.NOT_EXISTENT_COMMENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(classes = BalootApplication.class)
+public class CommentControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CommentController commentController;
+
+    @MockBean
+    private Baloot balootMock;
+
+    @BeforeEach
+    public void setUp() {
+        commentController.setBaloot(balootMock);
+    }
+
+    @Test
+    @DisplayName("Like comment should count the user's like")
+    public void testLikeCommentCorrectly() throws Exception {
+        Comment comment = new Comment(1, "sana@gmail.com", "sana", 1, "meow");
+        when(balootMock.getCommentById(1)).thenReturn(comment);
+
+        Map<String, String> input = Map.of("username", "hadi");
+        mvc.perform(post("/comment/1/like")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("The comment was successfully liked!"));
+        assertEquals(1, comment.getLike());
+    }
+
+    @Test
+    @DisplayName("Dislike comment should replace the user's earlier like")
+    public void testDislikeCommentCorrectly() throws Exception {
+        Comment comment = new Comment(1, "sana@gmail.com", "sana", 1, "meow");
+        comment.addUserVote("hadi", "like");
+        when(balootMock.getCommentById(1)).thenReturn(comment);
+
+        Map<String, String> input = Map.of("username", "hadi");
+        mvc.perform(post("/comment/1/dislike")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("The comment was successfully disliked!"));
+        assertEquals(0, comment.getLike());
+        assertEquals(1, comment.getDislike());
+    }
+
+    @Test
+    @DisplayName("Like comment should return 404 when the comment does not exist")
+    public void testLikeCommentNotFoundWhenCommentDoesNotExist() throws Exception {
+        when(balootMock.getCommentById(2)).thenThrow(new NotExistentComment());
+
+        Map<String, String> input = Map.of("username", "hadi");
+        mvc.perform(post("/comment/2/like")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(NOT_EXISTENT_COMMENT));
+    }
+
+    @Test
+    @DisplayName("Dislike comment should return bad request when username is null")
+    public void testDislikeCommentBadRequestWhenUsernameIsNull() throws Exception {
+        Map<String, String> input = new HashMap<>();
+        input.put("username", null);
+        mvc.perform(post("/comment/1/dislike")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(MISSING_USER_ID));
+        verify(balootMock, never()).getCommentById(anyInt());
+    }
+}
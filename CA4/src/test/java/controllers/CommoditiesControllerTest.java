@@ -17,13 +17,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import service.Baloot;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static defines.Errors.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -55,7 +59,7 @@ public class CommoditiesControllerTest {
     @DisplayName("Test should return the commodities correctly when it is empty")
     public void testReturnCommodityCorrectlyWhenEmpty() throws Exception {
         ArrayList<Commodity> commodities = new ArrayList<>();
-        when(balootMock.getCommodities()).thenReturn(commodities);
+        when(balootMock.getCommodities(0, 100)).thenReturn(commodities);
 
         mvc.perform(get("/commodities"))
                 .andExpect(status().isOk())
@@ -68,13 +72,89 @@ public class CommoditiesControllerTest {
         ArrayList<Commodity> commodities = new ArrayList<>();
         commodities.add(new Commodity());
         commodities.add(new Commodity());
-        when(balootMock.getCommodities()).thenReturn(commodities);
+        when(balootMock.getCommodities(0, 100)).thenReturn(commodities);
 
         mvc.perform(get("/commodities"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{},{}]"));
     }
 
+    @Test
+    @DisplayName("Test should return commodity summaries without per-user rates in the commodities list")
+    public void testReturnCommoditySummariesInList() throws Exception {
+        Commodity commodity = new Commodity();
+        commodity.setId("1");
+        commodity.setName("iPhone");
+        commodity.getUserRate().put("sana", 7);
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(commodity);
+        when(balootMock.getCommodities(0, 100)).thenReturn(commodities);
+
+        mvc.perform(get("/commodities"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("1"))
+                .andExpect(jsonPath("$[0].name").value("iPhone"))
+                .andExpect(jsonPath("$[0].userRate").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Test should return the requested page of commodities")
+    public void testReturnCommodityPageCorrectly() throws Exception {
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(new Commodity());
+        when(balootMock.getCommodities(20, 10)).thenReturn(commodities);
+
+        mvc.perform(get("/commodities").param("offset", "20").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
+    @Test
+    @DisplayName("Test should cap the page size when the requested limit is too large")
+    public void testCapCommodityPageSize() throws Exception {
+        when(balootMock.getCommodities(0, 100)).thenReturn(new ArrayList<>());
+
+        mvc.perform(get("/commodities").param("limit", "100000"))
+                .andExpect(status().isOk());
+        verify(balootMock).getCommodities(0, 100);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"offset=-1", "limit=0", "limit=-5"})
+    @DisplayName("Test should return bad request for a negative offset or a non-positive limit")
+    public void testRejectInvalidCommodityPage(String query) throws Exception {
+        String[] param = query.split("=");
+        mvc.perform(get("/commodities").param(param[0], param[1]))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("[]"));
+        verify(balootMock, never()).getCommodities(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test should stream the commodities as newline delimited json")
+    public void testStreamCommoditiesCorrectly() throws Exception {
+        Commodity iphone = new Commodity();
+        iphone.setId("1");
+        Commodity galaxy = new Commodity();
+        galaxy.setId("2");
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(iphone);
+        commodities.add(galaxy);
+        when(balootMock.getCommodities()).thenReturn(commodities);
+
+        MvcResult result = mvc.perform(get("/commodities/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"1\""));
+        assertTrue(lines[1].contains("\"id\":\"2\""));
+    }
+
     @Test
     @DisplayName("Test should return the status code 200 and the commodity info when the commodity exists")
     public void testReturnsCommodityInfoWhenExists() throws Exception {
@@ -98,21 +178,19 @@ public class CommoditiesControllerTest {
     @Test
     @DisplayName("Rate Commodity should be correct when the commodity exists")
     public void testRateCommodityCorrectly() throws Exception {
-        Commodity commodity = new Commodity();
-        when(balootMock.getCommodityById("1")).thenReturn(commodity);
-
         Map<String, String> input = Map.of("rate", "5", "username", "sana");
         mvc.perform(post("/commodities/1/rate")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(new ObjectMapper().writeValueAsString(input)))
                 .andExpect(status().isOk())
                 .andExpect(content().string("rate added successfully!"));
+        verify(balootMock).rateCommodity("1", "sana", 5);
     }
 
     @Test
     @DisplayName("Rate Commodity should return 404 when the commodity does not exist")
     public void testRateCommodityNotFoundWhenCommodityDoesNotExist() throws Exception {
-        when(balootMock.getCommodityById("1")).thenThrow(new NotExistentCommodity());
+        doThrow(new NotExistentCommodity()).when(balootMock).rateCommodity("1", "sana", 5);
 
         Map<String, String> input = Map.of("rate", "5", "username", "sana");
         mvc.perform(post("/commodities/1/rate")
@@ -126,8 +204,7 @@ public class CommoditiesControllerTest {
     @DisplayName("Rate Commodity should return bad request when the rate range is invalid")
     @ValueSource(strings = {"-1", "0", "20"})
     public void testRateCommodityBadRequestWhenRateRangeIsInvalid(String rate) throws Exception {
-        Commodity commodity = new Commodity();
-        when(balootMock.getCommodityById("1")).thenReturn(commodity);
+        doThrow(new InvalidScoreRange()).when(balootMock).rateCommodity("1", "sana", Integer.parseInt(rate));
 
         Map<String, String> input = Map.of("rate", rate, "username", "sana");
         mvc.perform(post("/commodities/1/rate")
@@ -140,9 +217,6 @@ public class CommoditiesControllerTest {
     @Test
     @DisplayName("Rate Commodity should return bad request when rate is null")
     public void testRateCommodityBadRequestWhenRateIsNull() throws Exception {
-        Commodity commodity = new Commodity();
-        when(balootMock.getCommodityById("1")).thenReturn(commodity);
-
         Map<String, String> input = new HashMap<>();
         input.put("rate", null);
         input.put("username", "sana");
@@ -153,6 +227,19 @@ public class CommoditiesControllerTest {
                 .andExpect(content().string("rate is null."));
     }
 
+    @Test
+    @DisplayName("Rate Commodity should return bad request when username is null")
+    public void testRateCommodityBadRequestWhenUsernameIsNull() throws Exception {
+        Map<String, String> input = new HashMap<>();
+        input.put("rate", "5");
+        input.put("username", null);
+        mvc.perform(post("/commodities/1/rate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(MISSING_USER_ID));
+    }
+
     @Test
     @DisplayName("Add Commodity Comment should be correct")
     public void testAddCommodityCommentCorrectly() throws Exception {
@@ -207,6 +294,76 @@ public class CommoditiesControllerTest {
                 .andExpect(content().json("[{}]"));
     }
 
+    @Test
+    @DisplayName("Test should return a page of a commodity's comments when offset and limit are given")
+    public void testGetCommodityCommentPageCorrectly() throws Exception {
+        ArrayList<Comment> comments = new ArrayList<>();
+        comments.add(new Comment());
+        when(balootMock.getCommentsForCommodity(1, 10, 5)).thenReturn(comments);
+
+        mvc.perform(get("/commodities/1/comment").param("offset", "10").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"offset=-1", "limit=0", "limit=-5"})
+    @DisplayName("Test should return bad request for a negative comment offset or a non-positive comment limit")
+    public void testRejectInvalidCommodityCommentPage(String query) throws Exception {
+        String[] param = query.split("=");
+        mvc.perform(get("/commodities/1/comment").param(param[0], param[1]))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("[]"));
+        verify(balootMock, never()).getCommentsForCommodity(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test should return the rest of a commodity's comments when only offset is given")
+    public void testGetCommodityCommentPageWithoutLimit() throws Exception {
+        ArrayList<Comment> comments = new ArrayList<>();
+        comments.add(new Comment());
+        when(balootMock.getCommentsForCommodity(1, 3, Integer.MAX_VALUE)).thenReturn(comments);
+
+        mvc.perform(get("/commodities/1/comment").param("offset", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
+    @Test
+    @DisplayName("Test should return the page of a commodity's comments posted between from and to")
+    public void testGetCommodityCommentsBetweenCorrectly() throws Exception {
+        ArrayList<Comment> comments = new ArrayList<>();
+        comments.add(new Comment());
+        when(balootMock.getCommentsForCommodityBetween(1, 1000L, 2000L, 2, 5)).thenReturn(comments);
+
+        mvc.perform(get("/commodities/1/comment").param("from", "1000").param("to", "2000")
+                        .param("offset", "2").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
+    @Test
+    @DisplayName("Test should leave the other end of the comment range open when only from is given")
+    public void testGetCommodityCommentsFromOnly() throws Exception {
+        ArrayList<Comment> comments = new ArrayList<>();
+        comments.add(new Comment());
+        when(balootMock.getCommentsForCommodityBetween(1, 1000L, Long.MAX_VALUE, 0, Integer.MAX_VALUE)).thenReturn(comments);
+
+        mvc.perform(get("/commodities/1/comment").param("from", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+        verify(balootMock, never()).getCommentsForCommodity(anyInt());
+    }
+
+    @Test
+    @DisplayName("Test should return bad request when the comment range ends before it starts")
+    public void testRejectReversedCommodityCommentRange() throws Exception {
+        mvc.perform(get("/commodities/1/comment").param("from", "2000").param("to", "1000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("[]"));
+        verify(balootMock, never()).getCommentsForCommodityBetween(anyInt(), anyLong(), anyLong(), anyInt(), anyInt());
+    }
+
     @Test
     @DisplayName("Search commodity should be bad request when searching commodities with searchValue null")
     public void testSearchCommoditiesWithSearchValueNull() throws Exception {
@@ -235,6 +392,22 @@ public class CommoditiesControllerTest {
                 .andExpect(content().json("[{}]"));
     }
 
+    @Test
+    @DisplayName("Search commodity should ignore case when searching commodities with name and ignoreCase is set")
+    public void testSearchCommoditiesWithNameIgnoringCaseSuccess() throws Exception {
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(new Commodity());
+        when(balootMock.filterCommoditiesByName("SANA", true)).thenReturn(commodities);
+
+        Map<String, String> input = Map.of("searchOption", "name", "searchValue", "SANA", "ignoreCase", "true");
+        mvc.perform(post("/commodities/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+        verify(balootMock, never()).filterCommoditiesByName("SANA");
+    }
+
     @Test
     @DisplayName("Search commodity should be correct when searching commodities with category is successful")
     public void testSearchCommoditiesWithCategorySuccess() throws Exception {
@@ -250,6 +423,36 @@ public class CommoditiesControllerTest {
                 .andExpect(content().json("[{}]"));
     }
 
+    @Test
+    @DisplayName("Search commodity should match all listed categories when matchAll is set")
+    public void testSearchCommoditiesWithAllCategoriesSuccess() throws Exception {
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(new Commodity());
+        when(balootMock.filterCommoditiesByCategories(List.of("makeup", "skin"), true)).thenReturn(commodities);
+
+        Map<String, String> input = Map.of("searchOption", "categories", "searchValue", "makeup, skin", "matchAll", "true");
+        mvc.perform(post("/commodities/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
+    @Test
+    @DisplayName("Search commodity should match any listed category by default")
+    public void testSearchCommoditiesWithAnyCategorySuccess() throws Exception {
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(new Commodity());
+        when(balootMock.filterCommoditiesByCategories(List.of("makeup", "skin"), false)).thenReturn(commodities);
+
+        Map<String, String> input = Map.of("searchOption", "categories", "searchValue", "makeup,skin");
+        mvc.perform(post("/commodities/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(input)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
     @Test
     @DisplayName("Search commodity should be correct when searching commodities with provider is successful")
     public void testSearchCommoditiesWithProviderSuccess() throws Exception {
@@ -282,13 +485,36 @@ public class CommoditiesControllerTest {
         ArrayList<Commodity> commodities = new ArrayList<>();
         commodities.add(new Commodity());
         when(balootMock.getCommodityById("2")).thenReturn(mock(Commodity.class));
-        when(balootMock.suggestSimilarCommodities(any(Commodity.class))).thenReturn(commodities);
+        when(balootMock.suggestSimilarCommodities(any(Commodity.class), eq(4))).thenReturn(commodities);
 
         mvc.perform(get("/commodities/2/suggested"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[{}]"));
     }
 
+    @Test
+    @DisplayName("Test should suggest the requested number of commodities")
+    public void testGetSuggestedCommoditiesWithCount() throws Exception {
+        ArrayList<Commodity> commodities = new ArrayList<>();
+        commodities.add(new Commodity());
+        when(balootMock.getCommodityById("2")).thenReturn(mock(Commodity.class));
+        when(balootMock.suggestSimilarCommodities(any(Commodity.class), eq(10))).thenReturn(commodities);
+
+        mvc.perform(get("/commodities/2/suggested").param("count", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{}]"));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Test should return bad request when the suggestion count is not positive")
+    @ValueSource(strings = {"0", "-3"})
+    public void testGetSuggestedCommoditiesBadRequestWhenCountIsNotPositive(String count) throws Exception {
+        mvc.perform(get("/commodities/2/suggested").param("count", count))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("[]"));
+        verify(balootMock, never()).suggestSimilarCommodities(any(Commodity.class), anyInt());
+    }
+
     @Test
     @DisplayName("Test should return Not found when commodity does not exist to get suggested commodities")
     public void testGetSuggestedCommoditiesErrorNotFoundWhenCommodityDoesNotExist() throws Exception {
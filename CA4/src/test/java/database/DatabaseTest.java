@@ -0,0 +1,211 @@
+package database;
+
+import model.Comment;
+import model.Commodity;
+import model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DatabaseTest {
+
+    private static final int WRITER_COUNT = 4;
+    private static final int READER_COUNT = 4;
+    private static final int ENTITIES_PER_WRITER = 2000;
+
+    private Database database;
+
+    @BeforeEach
+    public void setUp() {
+        database = new Database();
+    }
+
+    private Commodity createCommodity(String id, String category) {
+        Commodity commodity = new Commodity();
+        commodity.setId(id);
+        commodity.setName("commodity " + id);
+        commodity.setProviderId(id);
+        commodity.getCategories().add(category);
+        return commodity;
+    }
+
+    @Test
+    @DisplayName("concurrent writers and readers should neither fail nor lose entities")
+    public void concurrentWritesAndReadsAreConsistent() throws Exception {
+        String prefix = UUID.randomUUID().toString();
+        String category = prefix + "-category";
+        ExecutorService executor = Executors.newFixedThreadPool(WRITER_COUNT + READER_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITER_COUNT; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ENTITIES_PER_WRITER; i++) {
+                    String id = prefix + "-" + writer + "-" + i;
+                    database.addUser(new User(id, "1234", id + "@gmail.com", "2000-01-01", "Tehran"));
+                    database.addCommodity(createCommodity(id, category));
+                    database.addComment(new Comment(writer * ENTITIES_PER_WRITER + i, id + "@gmail.com", id, writer, "meow"));
+                }
+                return null;
+            }));
+        }
+
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READER_COUNT; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                int previousSize = 0;
+                while (writing.get()) {
+                    for (Commodity commodity : database.getCommodities())
+                        assertNotNull(commodity);
+                    for (Comment comment : database.getComments())
+                        assertNotNull(comment);
+
+                    List<Commodity> inCategory = database.findCommoditiesByCategory(category);
+                    assertTrue(inCategory.size() >= previousSize);
+                    previousSize = inCategory.size();
+                    for (Commodity commodity : inCategory)
+                        assertSame(commodity, database.findCommodity(commodity.getId()));
+                    database.findCommoditiesByName(prefix, false);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers)
+            writer.get(60, TimeUnit.SECONDS);
+        writing.set(false);
+        for (Future<?> reader : readers)
+            reader.get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        int total = WRITER_COUNT * ENTITIES_PER_WRITER;
+        assertEquals(total, database.findCommoditiesByCategory(category).size());
+        assertEquals(total, database.findCommoditiesByName(prefix, false).size());
+        assertEquals(total, database.getComments().size());
+        assertEquals(total, database.generateCommentId());
+        for (int w = 0; w < WRITER_COUNT; w++)
+            for (int i = 0; i < ENTITIES_PER_WRITER; i++) {
+                String id = prefix + "-" + w + "-" + i;
+                assertNotNull(database.findUser(id));
+                assertNotNull(database.findCommodity(id));
+                assertEquals(1, database.findCommoditiesByProviderId(id).size());
+            }
+    }
+
+    @Test
+    @DisplayName("snapshots should not change when entities are added afterwards")
+    public void snapshotsAreStable() {
+        database.addCommodity(createCommodity("1", "snapshot"));
+        List<Commodity> snapshot = database.getCommodities();
+        int size = snapshot.size();
+
+        database.addCommodity(createCommodity("2", "snapshot"));
+
+        assertEquals(size, snapshot.size());
+        assertEquals(size + 1, database.getCommodities().size());
+    }
+
+    private Comment createComment(int id, int commodityId, String date) {
+        Comment comment = new Comment(id, "sana@gmail.com", "sana", commodityId, "meow");
+        comment.setDate(date);
+        return comment;
+    }
+
+    @Test
+    @DisplayName("comments of a commodity should be found chronologically within an inclusive time range")
+    public void commentsAreFoundByTimeRange() {
+        int commodityId = 1;
+        Comment march = createComment(0, commodityId, "2023-03-01");
+        Comment january = createComment(1, commodityId, "2023-01-01");
+        Comment february = createComment(2, commodityId, "2023-02-01 12:00:00");
+        database.addComment(march);
+        database.addComment(january);
+        database.addComment(february);
+
+        assertEquals(List.of(january, february, march), database.findCommentsByCommodityId(commodityId));
+        assertEquals(List.of(february, march),
+                database.findCommentsByCommodityIdBetween(commodityId, january.getTimestamp() + 1, march.getTimestamp()));
+        assertEquals(List.of(january, february, march),
+                database.findCommentsByCommodityIdBetween(commodityId, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertTrue(database.findCommentsByCommodityIdBetween(commodityId, march.getTimestamp() + 1, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("generated comment ids should be unique under concurrency and above every stored id")
+    public void generatedCommentIdsAreUnique() throws Exception {
+        int storedId = 1000;
+        database.addComment(new Comment(storedId, "sana@gmail.com", "sana", 1, "meow"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<Integer>>> generators = new ArrayList<>();
+        for (int t = 0; t < 8; t++)
+            generators.add(executor.submit(() -> {
+                List<Integer> ids = new ArrayList<>();
+                for (int i = 0; i < 1000; i++)
+                    ids.add(database.generateCommentId());
+                return ids;
+            }));
+
+        Set<Integer> ids = new HashSet<>();
+        for (Future<List<Integer>> generator : generators)
+            ids.addAll(generator.get(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(8 * 1000, ids.size());
+        for (int id : ids)
+            assertTrue(id > storedId);
+    }
+
+    @Test
+    @DisplayName("bulk loaded comments should be ordered chronologically once loading is done")
+    public void loadedCommentsAreSortedOnce() {
+        Comment march = createComment(0, 1, "2023-03-01");
+        Comment january = createComment(1, 1, "2023-01-01");
+        Comment february = createComment(2, 1, "2023-02-01");
+        database.appendLoadedComment(march);
+        database.appendLoadedComment(january);
+        database.appendLoadedComment(february);
+
+        database.sortLoadedComments();
+
+        assertEquals(List.of(january, february, march), database.findCommentsByCommodityId(1));
+        assertEquals(3, database.generateCommentId());
+    }
+
+    @Test
+    @DisplayName("multi-category queries should intersect or unite categories and treat missing ones as empty")
+    public void commoditiesAreFoundByCategories() {
+        Commodity phone = createCommodity("phone", "tech");
+        phone.getCategories().add("mobile");
+        Commodity laptop = createCommodity("laptop", "tech");
+        Commodity tablet = createCommodity("tablet", "mobile");
+        database.addCommodity(phone);
+        database.addCommodity(laptop);
+        database.addCommodity(tablet);
+
+        assertEquals(List.of(phone), database.findCommoditiesByCategories(List.of("tech", "mobile"), true));
+        assertEquals(List.of(phone, laptop, tablet), database.findCommoditiesByCategories(List.of("tech", "mobile"), false));
+        assertEquals(List.of(), database.findCommoditiesByCategories(List.of("tech", "missing"), true));
+        assertEquals(List.of(phone, laptop), database.findCommoditiesByCategories(List.of("tech", "missing"), false));
+        assertEquals(List.of(), database.findCommoditiesByCategories(List.of(), false));
+    }
+}
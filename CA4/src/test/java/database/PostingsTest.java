@@ -0,0 +1,57 @@
+package database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostingsTest {
+
+    private static Postings.View viewOf(int... ordinals) {
+        Postings postings = new Postings();
+        for (int ordinal : ordinals)
+            postings.add(ordinal);
+        return postings.view();
+    }
+
+    private static List<Integer> toList(Postings.View view) {
+        List<Integer> ordinals = new ArrayList<>();
+        for (int i = 0; i < view.size(); i++)
+            ordinals.add(view.get(i));
+        return ordinals;
+    }
+
+    @Test
+    @DisplayName("added ordinals should be kept sorted without duplicates")
+    public void addKeepsSortedUniqueOrdinals() {
+        assertEquals(List.of(1, 3, 5, 8), toList(viewOf(5, 1, 8, 3, 5, 1)));
+    }
+
+    @Test
+    @DisplayName("intersect should keep only ordinals present in both views")
+    public void intersectKeepsCommonOrdinals() {
+        assertEquals(List.of(3, 8), toList(viewOf(1, 3, 5, 8).intersect(viewOf(2, 3, 8, 9))));
+        assertEquals(List.of(), toList(viewOf(1, 3).intersect(viewOf(2, 4))));
+    }
+
+    @Test
+    @DisplayName("union should merge both views in order without duplicates")
+    public void unionMergesOrdinals() {
+        assertEquals(List.of(1, 2, 3, 5, 8, 9), toList(viewOf(1, 3, 5, 8).union(viewOf(2, 3, 8, 9))));
+        assertEquals(List.of(1, 2, 7), toList(viewOf(7).union(viewOf(1, 2))));
+    }
+
+    @Test
+    @DisplayName("an empty view should empty an intersection and leave a union unchanged")
+    public void emptyViewEdgeCases() {
+        Postings.View view = viewOf(1, 3);
+
+        assertEquals(List.of(), toList(view.intersect(Postings.View.EMPTY)));
+        assertEquals(List.of(), toList(Postings.View.EMPTY.intersect(view)));
+        assertEquals(List.of(1, 3), toList(view.union(Postings.View.EMPTY)));
+        assertEquals(List.of(1, 3), toList(Postings.View.EMPTY.union(view)));
+    }
+}
@@ -0,0 +1,41 @@
+package database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnapshotListTest {
+
+    private static final Comparator<String> BY_LENGTH = Comparator.comparingInt(String::length);
+
+    @Test
+    @DisplayName("ordered adds should insert in order and after equal items")
+    public void orderedAddKeepsOrder() {
+        SnapshotList<String> list = new SnapshotList<>(BY_LENGTH);
+
+        list.add("ccc");
+        list.add("a");
+        list.add("bb");
+        list.add("dd");
+
+        assertEquals(List.of("a", "bb", "dd", "ccc"), list.snapshot());
+    }
+
+    @Test
+    @DisplayName("appended items should be ordered stably by a single sort")
+    public void appendThenSortOrdersStably() {
+        SnapshotList<String> list = new SnapshotList<>(BY_LENGTH);
+        for (String item : List.of("ccc", "bb", "a", "dd", "e"))
+            list.append(item);
+
+        List<String> unsorted = list.snapshot();
+        list.sort();
+
+        assertEquals(List.of("a", "e", "bb", "dd", "ccc"), list.snapshot());
+        assertEquals(List.of("ccc", "bb", "a", "dd", "e"), unsorted);
+    }
+}
@@ -0,0 +1,148 @@
+package model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommentTest {
+
+    private Comment comment;
+
+    @BeforeEach
+    public void setUp() {
+        comment = new Comment(1, "sana@gmail.com", "sana", 1, "meow");
+    }
+
+    @Test
+    @DisplayName("votes should be counted per kind")
+    public void votesAreCounted() {
+        comment.addUserVote("sana", "like");
+        comment.addUserVote("hadi", "like");
+        comment.addUserVote("ali", "dislike");
+
+        assertEquals(2, comment.getLike());
+        assertEquals(1, comment.getDislike());
+        assertEquals(Comment.LIKE, comment.getVote("sana"));
+        assertEquals(Comment.DISLIKE, comment.getVote("ali"));
+        assertEquals(Map.of("sana", "like", "hadi", "like", "ali", "dislike"), comment.getUserVote());
+    }
+
+    @Test
+    @DisplayName("a user's new vote should replace their previous vote")
+    public void changedVoteReplacesPreviousVote() {
+        comment.addUserVote("sana", "like");
+        comment.addUserVote("sana", "dislike");
+
+        assertEquals(0, comment.getLike());
+        assertEquals(1, comment.getDislike());
+    }
+
+    @Test
+    @DisplayName("repeating the same vote should not count twice")
+    public void repeatedVoteCountsOnce() {
+        comment.addUserVote("sana", "like");
+        comment.addUserVote("sana", "like");
+
+        assertEquals(1, comment.getLike());
+        assertEquals(0, comment.getDislike());
+    }
+
+    @Test
+    @DisplayName("an unknown vote should withdraw the user's previous vote")
+    public void unknownVoteWithdrawsPreviousVote() {
+        comment.addUserVote("sana", "dislike");
+        comment.addUserVote("sana", "meh");
+
+        assertEquals(0, comment.getLike());
+        assertEquals(0, comment.getDislike());
+        assertEquals(Comment.NO_VOTE, comment.getVote("sana"));
+    }
+
+    @Test
+    @DisplayName("counters should be recomputed when votes are set in bulk")
+    public void setUserVoteRecomputesCounters() {
+        comment.setUserVote(Map.of("sana", "like", "hadi", "dislike", "ali", "like"));
+
+        assertEquals(2, comment.getLike());
+        assertEquals(1, comment.getDislike());
+    }
+
+    @Test
+    @DisplayName("counters should match the final votes when users vote concurrently")
+    public void concurrentVotesAreNotLost() throws Exception {
+        int threadCount = 8;
+        int votersPerThread = 1000;
+        Concurrently.run(threadCount, thread -> {
+            for (int i = 0; i < votersPerThread; i++) {
+                String voter = "user-" + thread + "-" + i;
+                comment.addUserVote(voter, "dislike");
+                comment.addUserVote(voter, "like");
+            }
+        });
+
+        assertEquals(threadCount * votersPerThread, comment.getLike());
+        assertEquals(0, comment.getDislike());
+    }
+
+    @Test
+    @DisplayName("a date loaded without a time should start at midnight")
+    public void dateOnlyStartsAtMidnight() {
+        comment.setDate("2023-01-01");
+
+        assertEquals("2023-01-01 00:00:00", comment.getDate());
+    }
+
+    @Test
+    @DisplayName("a date with a time should round-trip through the timestamp")
+    public void dateTimeRoundTrips() {
+        comment.setDate("2023-02-01 13:45:10");
+        Comment later = new Comment();
+        later.setDate("2023-02-01 13:45:11");
+
+        assertEquals("2023-02-01 13:45:10", comment.getDate());
+        assertEquals(1000, later.getTimestamp() - comment.getTimestamp());
+    }
+
+    @ParameterizedTest
+    @NullSource
+    @ValueSource(strings = {"", "yesterday", "2023/02/01", "2023-02-01T13:45:10"})
+    @DisplayName("a missing or unparseable date should leave the timestamp at zero")
+    public void invalidDateLeavesTimestampAtZero(String date) {
+        comment.setTimestamp(1000);
+
+        comment.setDate(date);
+
+        assertEquals(0, comment.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("a comment with an unparseable date should still load from JSON")
+    public void invalidDateDoesNotStopLoading() throws Exception {
+        Comment loaded = new ObjectMapper().readValue("{\"id\": 7, \"text\": \"hi\", \"date\": \"not a date\"}", Comment.class);
+
+        assertEquals(7, loaded.getId());
+        assertEquals(0, loaded.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("votes should be written to and read from JSON as like and dislike")
+    public void votesKeepTheirJsonShape() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        comment.addUserVote("hadi", "like");
+
+        assertEquals("like", objectMapper.readTree(objectMapper.writeValueAsString(comment)).get("userVote").get("hadi").asText());
+
+        Comment loaded = objectMapper.readValue("{\"userVote\": {\"sana\": \"dislike\", \"hadi\": \"like\"}}", Comment.class);
+        assertEquals(1, loaded.getLike());
+        assertEquals(1, loaded.getDislike());
+        assertEquals(Comment.DISLIKE, loaded.getVote("sana"));
+    }
+}
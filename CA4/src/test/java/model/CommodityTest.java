@@ -0,0 +1,137 @@
+package model;
+
+import exceptions.InvalidScoreRange;
+import exceptions.NotInStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommodityTest {
+
+    private Commodity commodity;
+
+    @BeforeEach
+    public void setUp() {
+        commodity = new Commodity();
+        commodity.setRating(8);
+        commodity.setInitRate(4);
+    }
+
+    @Test
+    @DisplayName("rating should stay the loaded rating when nobody has rated")
+    public void ratingIsLoadedRatingWithoutRates() {
+        assertEquals(8, commodity.getRating());
+    }
+
+    @Test
+    @DisplayName("rating should average the initial rate with the user rates")
+    public void ratingAveragesUserRates() throws InvalidScoreRange {
+        commodity.addRate("sana", 6);
+        commodity.addRate("hadi", 8);
+
+        assertEquals((4 + 6 + 8) / 3f, commodity.getRating());
+    }
+
+    @Test
+    @DisplayName("rating should replace a user's previous rate when they rate again")
+    public void rerateReplacesPreviousRate() throws InvalidScoreRange {
+        commodity.addRate("sana", 2);
+        commodity.addRate("sana", 10);
+
+        assertEquals((4 + 10) / 2f, commodity.getRating());
+        assertEquals(1, commodity.getUserRate().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, 11})
+    @DisplayName("rate out of range should throw and leave the rating unchanged")
+    public void outOfRangeRateThrows(int score) {
+        assertThrows(InvalidScoreRange.class, () -> commodity.addRate("sana", score));
+        assertEquals(8, commodity.getRating());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"-3, 0", "12.5, 10", "1000, 10", "NaN, 0"})
+    @DisplayName("loaded ratings outside 0 to 10 should be clamped into range")
+    public void loadedRatingsAreClamped(float loaded, float expected) {
+        commodity.setRating(loaded);
+        commodity.setInitRate(loaded);
+
+        assertEquals(expected, commodity.getRating());
+        assertEquals(expected, commodity.getInitRate());
+    }
+
+    @Test
+    @DisplayName("rating should be recomputed when user rates are set in bulk")
+    public void setUserRateRecomputesRating() {
+        commodity.setUserRate(Map.of("sana", 6, "hadi", 2));
+
+        assertEquals((4 + 6 + 2) / 3f, commodity.getRating());
+    }
+
+    @Test
+    @DisplayName("reserving stock should decrease it and releasing should restore it")
+    public void reserveAndReleaseStock() throws NotInStock {
+        commodity.setInStock(5);
+
+        commodity.reserveStock(3);
+        assertEquals(2, commodity.getInStock());
+
+        commodity.releaseStock(3);
+        assertEquals(5, commodity.getInStock());
+    }
+
+    @Test
+    @DisplayName("reserving more than the stock should throw and leave the stock unchanged")
+    public void reserveMoreThanStockThrows() {
+        commodity.setInStock(2);
+
+        assertThrows(NotInStock.class, () -> commodity.reserveStock(3));
+        assertEquals(2, commodity.getInStock());
+    }
+
+    @Test
+    @DisplayName("concurrent reservations should never take the stock below zero")
+    public void concurrentReservationsDoNotOversell() throws Exception {
+        int stock = 1000;
+        commodity.setInStock(stock);
+        AtomicInteger reservedUnits = new AtomicInteger();
+        Concurrently.run(16, thread -> {
+            for (int i = 0; i < 200; i++) {
+                try {
+                    commodity.reserveStock(1);
+                    reservedUnits.incrementAndGet();
+                } catch (NotInStock ignored) {
+                }
+            }
+        });
+
+        assertEquals(stock, reservedUnits.get());
+        assertEquals(0, commodity.getInStock());
+    }
+
+    @Test
+    @DisplayName("rating should count every rate when users rate concurrently")
+    public void concurrentRatesAreNotLost() throws Exception {
+        int threadCount = 8;
+        int ratesPerThread = 1000;
+        Concurrently.run(threadCount, thread -> {
+            for (int i = 0; i < ratesPerThread; i++) {
+                commodity.addRate("user-" + thread + "-" + i, 5);
+                commodity.addRate("user-" + thread + "-" + i, 7);
+            }
+        });
+
+        int raters = threadCount * ratesPerThread;
+        assertEquals(raters, commodity.getUserRate().size());
+        assertEquals((4 + 7f * raters) / (raters + 1), commodity.getRating());
+    }
+}
@@ -0,0 +1,159 @@
+package model;
+
+import exceptions.CommodityIsNotInBuyList;
+import exceptions.InsufficientCredit;
+import exceptions.InvalidCreditRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserTest {
+
+    private User user;
+    private Commodity commodity;
+
+    @BeforeEach
+    public void setUp() {
+        user = new User("sana", "1234", "sana@gmail.com", "1380-01-01", "Tehran");
+        commodity = new Commodity();
+        commodity.setId("1");
+    }
+
+    @Test
+    @DisplayName("adding a commodity twice should count it twice in the buy list")
+    public void addBuyItemIncrementsQuantity() {
+        user.addBuyItem(commodity);
+        user.addBuyItem(commodity);
+
+        assertEquals(2, user.getBuyList().get("1"));
+    }
+
+    @Test
+    @DisplayName("removing the last unit of a commodity should drop it from the buy list")
+    public void removeLastUnitDropsEntry() throws CommodityIsNotInBuyList {
+        user.addBuyItem(commodity);
+        user.addBuyItem(commodity);
+
+        user.removeItemFromBuyList(commodity);
+        assertEquals(1, user.getBuyList().get("1"));
+
+        user.removeItemFromBuyList(commodity);
+        assertFalse(user.getBuyList().containsKey("1"));
+    }
+
+    @Test
+    @DisplayName("removing a commodity that is not in the buy list should throw")
+    public void removeMissingItemThrows() {
+        assertThrows(CommodityIsNotInBuyList.class, () -> user.removeItemFromBuyList(commodity));
+    }
+
+    @Test
+    @DisplayName("removing bought items should keep units added after the purchase snapshot")
+    public void removeBuyItemsKeepsLaterAdditions() {
+        user.addBuyItem(commodity);
+        Map<String, Integer> purchased = new HashMap<>(user.getBuyList());
+        user.addBuyItem(commodity);
+
+        user.removeBuyItems(purchased);
+
+        assertEquals(1, user.getBuyList().get("1"));
+    }
+
+    @Test
+    @DisplayName("purchased quantities should accumulate")
+    public void addPurchasedItemAccumulates() {
+        user.addPurchasedItem("1", 2);
+        user.addPurchasedItem("1", 3);
+
+        assertEquals(5, user.getPurchasedList().get("1"));
+    }
+
+    @Test
+    @DisplayName("concurrent adds and removes should leave the exact buy list quantity")
+    public void concurrentBuyListUpdatesAreNotLost() throws Exception {
+        int threadCount = 8;
+        int addsPerThread = 1000;
+        Concurrently.run(threadCount, thread -> {
+            for (int i = 0; i < addsPerThread; i++)
+                user.addBuyItem(commodity);
+            for (int i = 0; i < addsPerThread / 2; i++)
+                user.removeItemFromBuyList(commodity);
+        });
+
+        assertEquals(threadCount * addsPerThread / 2, user.getBuyList().get("1"));
+    }
+
+    @Test
+    @DisplayName("many small top-ups should add up without rounding drift")
+    public void smallTopUpsDoNotDrift() throws InvalidCreditRange {
+        for (int i = 0; i < 1000; i++)
+            user.addCredit(0.1f);
+
+        assertEquals(100, user.getCredit());
+    }
+
+    @ParameterizedTest
+    @ValueSource(floats = {Float.NaN, Float.POSITIVE_INFINITY, 1e30f, -1})
+    @DisplayName("non-finite, negative or unrepresentable top-ups should throw and leave the credit unchanged")
+    public void invalidTopUpsThrow(float amount) {
+        user.setCredit(10);
+
+        assertThrows(InvalidCreditRange.class, () -> user.addCredit(amount));
+        assertEquals(10, user.getCredit());
+    }
+
+    @Test
+    @DisplayName("a top-up that would overflow the balance should throw and leave the credit unchanged")
+    public void overflowingTopUpThrows() {
+        user.setCredit(Float.MAX_VALUE);
+        float credit = user.getCredit();
+
+        assertThrows(InvalidCreditRange.class, () -> user.addCredit(1));
+        assertEquals(credit, user.getCredit());
+    }
+
+    @Test
+    @DisplayName("large top-ups below the overflow limit should be accepted")
+    public void largeTopUpsAreAccepted() throws InvalidCreditRange {
+        user.setCredit(0);
+        user.addCredit(2e9f);
+
+        assertEquals(2e9f, user.getCredit());
+    }
+
+    @Test
+    @DisplayName("withdrawing more than the credit should throw and leave the credit unchanged")
+    public void withdrawMoreThanCreditThrows() {
+        user.setCredit(10.5f);
+
+        assertThrows(InsufficientCredit.class, () -> user.withdrawCredit(10.51f));
+        assertEquals(10.5f, user.getCredit());
+    }
+
+    @Test
+    @DisplayName("concurrent withdrawals should never take the credit below zero")
+    public void concurrentWithdrawalsDoNotOverdraw() throws Exception {
+        user.setCredit(1000);
+        AtomicInteger withdrawals = new AtomicInteger();
+        Concurrently.run(16, thread -> {
+            for (int i = 0; i < 200; i++) {
+                try {
+                    user.withdrawCredit(1);
+                    withdrawals.incrementAndGet();
+                } catch (InsufficientCredit ignored) {
+                }
+            }
+        });
+
+        assertEquals(1000, withdrawals.get());
+        assertEquals(0, user.getCredit());
+    }
+}
@@ -0,0 +1,418 @@
+package service;
+
+import database.Database;
+import exceptions.*;
+import model.Commodity;
+import model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.BuyListItem;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BalootTest {
+
+    private Baloot baloot;
+
+    @BeforeEach
+    public void setUp() {
+        baloot = new Baloot(new Database());
+    }
+
+    private Commodity addCommodity(String name, int price, int inStock) {
+        Commodity commodity = new Commodity();
+        commodity.setId(name);
+        commodity.setName(name);
+        commodity.setPrice(price);
+        commodity.setInStock(inStock);
+        baloot.addCommodity(commodity);
+        return commodity;
+    }
+
+    private Commodity addRatedCommodity(String name, float rating, String... categories) {
+        Commodity commodity = new Commodity();
+        commodity.setId(name);
+        commodity.setName(name);
+        commodity.setRating(rating);
+        for (String category : categories)
+            commodity.getCategories().add(category);
+        baloot.addCommodity(commodity);
+        return commodity;
+    }
+
+    private float suggestionScore(Commodity commodity, Commodity suggestion) {
+        return 11 * baloot.isInSimilarCategoryWithFirstCommodity(commodity, suggestion) + suggestion.getRating();
+    }
+
+    private List<Float> bruteForceSuggestionScores(Commodity commodity, int count) {
+        List<Float> scores = new ArrayList<>();
+        for (Commodity other : baloot.getCommodities())
+            if (other != commodity)
+                scores.add(suggestionScore(commodity, other));
+        scores.sort(Comparator.reverseOrder());
+        return scores.subList(0, Math.min(count, scores.size()));
+    }
+
+    private List<Float> suggestionScores(Commodity commodity, List<Commodity> suggestions) {
+        List<Float> scores = new ArrayList<>();
+        for (Commodity suggestion : suggestions)
+            scores.add(suggestionScore(commodity, suggestion));
+        return scores;
+    }
+
+    private static List<String> suggestionIds(List<Commodity> suggestions) {
+        List<String> ids = new ArrayList<>();
+        for (Commodity suggestion : suggestions)
+            ids.add(suggestion.getId());
+        return ids;
+    }
+
+    private User addUser(String name, float credit) throws UsernameAlreadyTaken, InvalidCreditRange {
+        User user = new User(name, "1234", name + "@gmail.com", "2000-01-01", "Tehran");
+        user.addCredit(credit);
+        baloot.addUser(user);
+        return user;
+    }
+
+    @Test
+    @DisplayName("bootstrapping an already loaded instance should not reload the data")
+    public void bootstrapIsIdempotent() throws NotExistentCommodity {
+        baloot.bootstrap();
+        int loadedCommodities = baloot.getCommodities().size();
+        Commodity iphone = addCommodity("iphone", 100, 5);
+
+        baloot.bootstrap();
+
+        assertTrue(baloot.isLoaded());
+        assertEquals(loadedCommodities + 1, baloot.getCommodities().size());
+        assertSame(iphone, baloot.getCommodityById(iphone.getId()));
+    }
+
+    @Test
+    @DisplayName("loading the data should record a timing for every phase")
+    public void loadTimingsCoverEveryPhase() {
+        baloot.bootstrap();
+
+        assertEquals(Set.of("users", "providers", "commodities", "comments", "total"), baloot.getLoadTimings().keySet());
+    }
+
+    @Test
+    @DisplayName("checkout should withdraw credit, update stock and move the buy list to the purchased list")
+    public void checkoutPurchasesBuyList() throws Exception {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        User user = addUser("sana", 1000);
+        user.addBuyItem(iphone);
+        user.addBuyItem(iphone);
+
+        baloot.withdrawPayableAmount(user);
+
+        assertEquals(800, user.getCredit());
+        assertEquals(3, iphone.getInStock());
+        assertTrue(user.getBuyList().isEmpty());
+        assertEquals(2, user.getPurchasedList().get(iphone.getId()));
+        assertEquals(0, baloot.getCurrentBuyListPrice(user));
+    }
+
+    @Test
+    @DisplayName("checkout should change nothing when one item is out of stock")
+    public void checkoutIsAllOrNothingOnMissingStock() throws Exception {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        Commodity galaxy = addCommodity("galaxy", 100, 0);
+        User user = addUser("sana", 1000);
+        user.addBuyItem(iphone);
+        user.addBuyItem(galaxy);
+
+        assertThrows(NotInStock.class, () -> baloot.withdrawPayableAmount(user));
+
+        assertEquals(1000, user.getCredit());
+        assertEquals(5, iphone.getInStock());
+        assertEquals(2, user.getBuyList().size());
+        assertTrue(user.getPurchasedList().isEmpty());
+    }
+
+    @Test
+    @DisplayName("checkout should change nothing when credit is insufficient")
+    public void checkoutIsAllOrNothingOnInsufficientCredit() throws Exception {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        User user = addUser("sana", 50);
+        user.addBuyItem(iphone);
+
+        assertThrows(InsufficientCredit.class, () -> baloot.withdrawPayableAmount(user));
+
+        assertEquals(50, user.getCredit());
+        assertEquals(5, iphone.getInStock());
+        assertEquals(1, user.getBuyList().size());
+    }
+
+    @Test
+    @DisplayName("buy list price should follow items added to and removed from the buy list")
+    public void buyListPriceFollowsBuyListChanges() throws Exception {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        Commodity galaxy = addCommodity("galaxy", 30, 5);
+        User user = addUser("sana", 1000);
+
+        baloot.addCommodityToUserBuyList(user.getUsername(), iphone.getId());
+        baloot.addCommodityToUserBuyList(user.getUsername(), galaxy.getId());
+        baloot.addCommodityToUserBuyList(user.getUsername(), galaxy.getId());
+        assertEquals(160, baloot.getCurrentBuyListPrice(user));
+
+        baloot.removeCommodityFromUserBuyList(user.getUsername(), galaxy.getId());
+        assertEquals(130, baloot.getCurrentBuyListPrice(user));
+    }
+
+    @Test
+    @DisplayName("buy list price should be refreshed when a commodity's price changes")
+    public void buyListPriceFollowsPriceChanges() throws Exception {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        User user = addUser("sana", 1000);
+        user.addBuyItem(iphone);
+        user.addBuyItem(iphone);
+        assertEquals(200, baloot.getCurrentBuyListPrice(user));
+
+        iphone.setPrice(120);
+
+        assertEquals(240, baloot.getCurrentBuyListPrice(user));
+    }
+
+    @Test
+    @DisplayName("resolving buy list ids should report commodities that no longer exist without a commodity")
+    public void getCommoditiesByIdsReportsMissingIds() {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        String missingId = "missing";
+
+        List<BuyListItem> items = baloot.getCommoditiesByIds(Map.of(iphone.getId(), 2, missingId, 1));
+
+        assertEquals(2, items.size());
+        BuyListItem found = items.stream().filter(item -> item.getCommodityId().equals(iphone.getId())).findFirst().orElseThrow();
+        assertSame(iphone, found.getCommodity());
+        assertEquals(2, found.getQuantity());
+        BuyListItem missing = items.stream().filter(item -> item.getCommodityId().equals(missingId)).findFirst().orElseThrow();
+        assertNull(missing.getCommodity());
+        assertEquals(1, missing.getQuantity());
+    }
+
+    @Test
+    @DisplayName("buy list price should stay exact while it is read during concurrent buy list changes")
+    public void buyListPriceIsExactUnderConcurrentChanges() throws Exception {
+        Commodity iphone = addCommodity("iphone", 100, 5);
+        Commodity galaxy = addCommodity("galaxy", 30, 5);
+        for (int round = 0; round < 200; round++) {
+            User user = addUser("user-" + round, 1000);
+            CountDownLatch start = new CountDownLatch(1);
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 20; i++) {
+                        user.addBuyItem(iphone);
+                        user.addBuyItem(galaxy);
+                        user.removeItemFromBuyList(galaxy);
+                    }
+                } catch (InterruptedException | CommodityIsNotInBuyList e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            writer.start();
+            start.countDown();
+            while (writer.isAlive())
+                baloot.getCurrentBuyListPrice(user);
+            writer.join();
+
+            assertEquals(20 * 100, baloot.getCurrentBuyListPrice(user));
+        }
+    }
+
+    @Test
+    @DisplayName("suggestions should match a brute-force scan of the catalog on a random catalog")
+    public void suggestionsMatchBruteForce() {
+        Random random = new Random(42);
+        List<Commodity> catalog = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String[] categories = new String[1 + random.nextInt(3)];
+            for (int c = 0; c < categories.length; c++)
+                categories[c] = "category-" + random.nextInt(40);
+            catalog.add(addRatedCommodity("random-" + i, random.nextInt(101) / 10f, categories));
+        }
+
+        for (int i = 0; i < 300; i++) {
+            Commodity commodity = catalog.get(random.nextInt(catalog.size()));
+            int count = 1 + random.nextInt(12);
+
+            List<Commodity> suggestions = baloot.suggestSimilarCommodities(commodity, count);
+
+            assertFalse(suggestions.contains(commodity));
+            assertEquals(count, new HashSet<>(suggestions).size());
+            assertEquals(bruteForceSuggestionScores(commodity, count), suggestionScores(commodity, suggestions));
+        }
+    }
+
+    @Test
+    @DisplayName("suggestions should fall back to the top rated commodities when the categories have too few")
+    public void suggestionsFallBackToTopRated() {
+        Commodity commodity = addRatedCommodity("lonely", 5, "lonely");
+        Commodity mate = addRatedCommodity("mate", 1, "lonely");
+        for (int i = 0; i < 6; i++)
+            addRatedCommodity("other-" + i, i, "other");
+
+        List<Commodity> suggestions = baloot.suggestSimilarCommodities(commodity, 4);
+
+        assertEquals(4, suggestions.size());
+        assertSame(mate, suggestions.get(0));
+        assertEquals(bruteForceSuggestionScores(commodity, 4), suggestionScores(commodity, suggestions));
+    }
+
+    @Test
+    @DisplayName("suggestions should skip the commodity itself when it is the top rated one")
+    public void suggestionsSkipTheCommodityItself() {
+        Commodity commodity = addRatedCommodity("best", 10, "best");
+        for (int i = 0; i < 6; i++)
+            addRatedCommodity("other-" + i, i, "other");
+
+        List<Commodity> suggestions = baloot.suggestSimilarCommodities(commodity, 4);
+
+        assertEquals(4, suggestions.size());
+        assertFalse(suggestions.contains(commodity));
+        assertEquals(bruteForceSuggestionScores(commodity, 4), suggestionScores(commodity, suggestions));
+    }
+
+    @Test
+    @DisplayName("out-of-range loaded ratings should not let other categories outrank same-category suggestions")
+    public void suggestionsKeepSameCategoryFirstForLargeRatings() {
+        Commodity commodity = addRatedCommodity("phone", 5, "phones");
+        for (int i = 0; i < 6; i++)
+            addRatedCommodity("phone-" + i, i, "phones");
+        for (int i = 0; i < 6; i++)
+            addRatedCommodity("star-" + i, 100 * (i + 1), "stars");
+
+        List<Commodity> suggestions = baloot.suggestSimilarCommodities(commodity, 4);
+
+        assertEquals(bruteForceSuggestionScores(commodity, 4), suggestionScores(commodity, suggestions));
+        assertEquals(List.of(16f, 15f, 14f, 13f), suggestionScores(commodity, suggestions));
+    }
+
+    @Test
+    @DisplayName("rating a commodity should refresh the cached suggestions it appears in")
+    public void ratingRefreshesCachedSuggestions() throws Exception {
+        Commodity commodity = addRatedCommodity("phone", 5, "phones");
+        Commodity low = addRatedCommodity("low", 1, "phones");
+        addRatedCommodity("mid", 3, "phones");
+        low.setInitRate(1);
+        assertEquals(List.of("mid", "low"), suggestionIds(baloot.suggestSimilarCommodities(commodity, 2)));
+
+        baloot.rateCommodity(low.getId(), "sana", 10);
+
+        assertEquals(List.of("low", "mid"), suggestionIds(baloot.suggestSimilarCommodities(commodity, 2)));
+        assertEquals(bruteForceSuggestionScores(commodity, 2), suggestionScores(commodity, baloot.suggestSimilarCommodities(commodity, 2)));
+    }
+
+    @Test
+    @DisplayName("rating a missing commodity or with an out-of-range score should throw")
+    public void rateCommodityRejectsInvalidInput() {
+        Commodity commodity = addRatedCommodity("phone", 5, "phones");
+
+        assertThrows(NotExistentCommodity.class, () -> baloot.rateCommodity("missing", "sana", 5));
+        assertThrows(InvalidScoreRange.class, () -> baloot.rateCommodity(commodity.getId(), "sana", 11));
+        assertEquals(5, commodity.getRating());
+    }
+
+    @Test
+    @DisplayName("concurrent checkouts of the same commodity should never oversell it")
+    public void concurrentCheckoutsDoNotOversell() throws Exception {
+        int stock = 10;
+        int buyers = 50;
+        Commodity iphone = addCommodity("iphone", 100, stock);
+        Commodity galaxy = addCommodity("galaxy", 10, buyers);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            User user = addUser("user-" + i, 1000);
+            if (i % 2 == 0) {
+                user.addBuyItem(iphone);
+                user.addBuyItem(galaxy);
+            } else {
+                user.addBuyItem(galaxy);
+                user.addBuyItem(iphone);
+            }
+            users.add(user);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> checkouts = new ArrayList<>();
+        for (User user : users)
+            checkouts.add(executor.submit(() -> {
+                start.await();
+                try {
+                    baloot.withdrawPayableAmount(user);
+                    return true;
+                } catch (NotInStock e) {
+                    return false;
+                }
+            }));
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> checkout : checkouts)
+            if (checkout.get(30, TimeUnit.SECONDS))
+                succeeded++;
+        executor.shutdown();
+
+        assertEquals(stock, succeeded);
+        assertEquals(0, iphone.getInStock());
+        assertEquals(buyers - stock, galaxy.getInStock());
+        for (User user : users)
+            assertEquals(user.getPurchasedList().isEmpty() ? 1000 : 890, user.getCredit());
+    }
+
+    @Test
+    @DisplayName("two checkouts competing for the last units of the same commodities should never both fail")
+    public void competingCheckoutsSellTheLastUnits() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int round = 0; round < 200; round++) {
+            Commodity iphone = addCommodity("iphone-" + round, 100, 1);
+            Commodity galaxy = addCommodity("galaxy-" + round, 10, 1);
+            User first = addUser("first-" + round, 1000);
+            first.addBuyItem(iphone);
+            first.addBuyItem(galaxy);
+            User second = addUser("second-" + round, 1000);
+            second.addBuyItem(galaxy);
+            second.addBuyItem(iphone);
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> checkouts = new ArrayList<>();
+            for (User user : List.of(first, second))
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        baloot.withdrawPayableAmount(user);
+                        return true;
+                    } catch (NotInStock e) {
+                        return false;
+                    }
+                }));
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> checkout : checkouts)
+                if (checkout.get(30, TimeUnit.SECONDS))
+                    succeeded++;
+
+            assertEquals(1, succeeded);
+            assertEquals(0, iphone.getInStock());
+            assertEquals(0, galaxy.getInStock());
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,79 @@
+package service;
+
+import model.Commodity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuggestionCacheTest {
+
+    private SuggestionCache suggestionCache;
+    private List<Commodity> suggestions;
+
+    @BeforeEach
+    public void setUp() {
+        suggestionCache = new SuggestionCache();
+        suggestions = List.of(new Commodity(), new Commodity(), new Commodity(), new Commodity());
+    }
+
+    @Test
+    @DisplayName("cached suggestions should be served for the same or a smaller count")
+    public void servesSameOrSmallerCount() {
+        suggestionCache.put("1", List.of("tech"), 4, suggestions, true, suggestionCache.version());
+
+        assertEquals(suggestions, suggestionCache.get("1", 4));
+        assertEquals(suggestions.subList(0, 2), suggestionCache.get("1", 2));
+        assertNull(suggestionCache.get("1", 5));
+    }
+
+    @Test
+    @DisplayName("invalidation should drop the changed commodity's entry and keep entries of other categories")
+    public void invalidationDropsListedEntries() {
+        suggestionCache.put("1", List.of("tech"), 4, suggestions, true, suggestionCache.version());
+        suggestionCache.put("2", List.of("food"), 4, suggestions, true, suggestionCache.version());
+
+        suggestionCache.invalidate("1", List.of("tech"));
+
+        assertNull(suggestionCache.get("1", 4));
+        assertNotNull(suggestionCache.get("2", 4));
+    }
+
+    @Test
+    @DisplayName("invalidation should always drop entries that contain cross-category suggestions")
+    public void invalidationDropsCrossCategoryEntries() {
+        suggestionCache.put("1", List.of("tech"), 4, suggestions, false, suggestionCache.version());
+
+        suggestionCache.invalidate("2", List.of("food"));
+
+        assertNull(suggestionCache.get("1", 4));
+    }
+
+    @Test
+    @DisplayName("suggestions computed before an invalidation should not be cached")
+    public void staleSuggestionsAreNotCached() {
+        long version = suggestionCache.version();
+        suggestionCache.invalidate("3", List.of("food"));
+
+        suggestionCache.put("1", List.of("tech"), 4, suggestions, true, version);
+
+        assertNull(suggestionCache.get("1", 4));
+    }
+
+    @Test
+    @DisplayName("invalidation should drop the entries of every commodity sharing a category with the changed one")
+    public void invalidationDropsSameCategoryEntries() {
+        suggestionCache.put("1", List.of("tech", "phone"), 4, suggestions, true, suggestionCache.version());
+        suggestionCache.put("2", List.of("phone"), 4, suggestions, true, suggestionCache.version());
+        suggestionCache.put("3", List.of("food"), 4, suggestions, true, suggestionCache.version());
+
+        suggestionCache.invalidate("4", List.of("phone"));
+
+        assertNull(suggestionCache.get("1", 4));
+        assertNull(suggestionCache.get("2", 4));
+        assertNotNull(suggestionCache.get("3", 4));
+    }
+}